@@ -64,7 +64,7 @@ public class TestMain {
             System.out.println("   ID: " + oblast.getId());
             System.out.println("   Coords: (" + oblast.getLatitude() + ", " + oblast.getLongitude() + ")");
             System.out.println("   Frontline: " + (oblast.isFrontline() ? "⚠️ SIM" : "✅ NÃO"));
-            System.out.println("   Vizinhos: " + graph.getNeighbors(oblastId).size());
+            System.out.println("   Vizinhos: " + graph.getDegree(oblastId));
             System.out.println("   Descrição: " + UkraineData.getOblastDescription(oblastId));
             System.out.println();
         }
@@ -86,13 +86,13 @@ public class TestMain {
 
         System.out.print("      ");
         for (int i = 0; i < size; i++) {
-            String id = graph.getIndexToId().get(i);
+            String id = graph.getId(i);
             System.out.printf("%-8s", id.substring(0, Math.min(6, id.length())));
         }
         System.out.println();
 
         for (int i = 0; i < size; i++) {
-            String id = graph.getIndexToId().get(i);
+            String id = graph.getId(i);
             System.out.printf("%-6s", id.substring(0, Math.min(6, id.length())));
 
             for (int j = 0; j < size; j++) {
@@ -0,0 +1,102 @@
+package com.isctem.ukraine.algorithm;
+
+import com.isctem.ukraine.model.*;
+import java.util.*;
+
+/**
+ * Implementação do ALT (A*, Landmarks, Triangle inequality)
+ * A* cuja heurística vem das distâncias pré-calculadas em {@link Landmarks}.
+ * O pré-processamento é feito uma vez e reutilizado entre consultas.
+ */
+public class ALT {
+
+    /**
+     * Executa ALT sobre a fotografia CSR com landmarks já sincronizados
+     */
+    public static AlgorithmResult execute(GraphSnapshot snapshot, Landmarks landmarks,
+                                          String startId, String endId) {
+        long startTime = System.currentTimeMillis();
+
+        AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
+                .setAlgorithmName("ALT (A* + Landmarks)");
+
+        int startIdx = snapshot.indexOf(startId);
+        int endIdx = snapshot.indexOf(endId);
+
+        if (startIdx < 0 || endIdx < 0) {
+            return resultBuilder.setError("Oblast não encontrado").build();
+        }
+
+        int n = snapshot.getNodeCount();
+        double[] distances = new double[n];
+        int[] parent = new int[n];
+        boolean[] closed = new boolean[n];
+        IndexedMinHeap open = new IndexedMinHeap(n);
+
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[startIdx] = 0.0;
+        parent[startIdx] = -1;
+        open.insertOrDecrease(startIdx, landmarks.lowerBound(startIdx, endIdx));
+
+        int nodesVisited = 0;
+        int edgesExplored = 0;
+
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            closed[current] = true;
+            nodesVisited++;
+            Cancellation.checkpoint(nodesVisited);
+
+            if (current == endIdx) {
+                break;
+            }
+
+            double currentDist = distances[current];
+
+            for (int e = snapshot.firstEdge(current); e < snapshot.endEdge(current); e++) {
+                if (!snapshot.isUsable(e)) continue;
+                edgesExplored++;
+
+                int neighbor = snapshot.getTarget(e);
+                if (closed[neighbor]) continue; // Heurística consistente
+
+                double newDist = currentDist + snapshot.getWeight(e);
+                if (newDist < distances[neighbor]) {
+                    distances[neighbor] = newDist;
+                    parent[neighbor] = current;
+                    open.insertOrDecrease(neighbor, newDist + landmarks.lowerBound(neighbor, endIdx));
+                }
+            }
+        }
+
+        long endTime = System.currentTimeMillis();
+
+        if (distances[endIdx] == Double.POSITIVE_INFINITY) {
+            return resultBuilder
+                    .setError("Não existe caminho entre os Oblasts")
+                    .setExecutionTime(endTime - startTime)
+                    .setNodesVisited(nodesVisited)
+                    .setEdgesExplored(edgesExplored)
+                    .build();
+        }
+
+        List<Oblast> path = snapshot.buildPath(parent, endIdx);
+
+        Route route = new Route.Builder()
+                .setPath(path)
+                .setTotalDistance(snapshot.pathDistance(path))
+                .setTotalCost(distances[endIdx])
+                .setAlgorithm("ALT")
+                .setComputationTime(endTime - startTime)
+                .setOptimal(true)
+                .build();
+
+        return resultBuilder
+                .setMainRoute(route)
+                .setExecutionTime(endTime - startTime)
+                .setNodesVisited(nodesVisited)
+                .setEdgesExplored(edgesExplored)
+                .addMetadata("landmarks", landmarks.getLandmarkIds())
+                .build();
+    }
+}
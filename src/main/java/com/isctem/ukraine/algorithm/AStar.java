@@ -0,0 +1,128 @@
+package com.isctem.ukraine.algorithm;
+
+import com.isctem.ukraine.model.*;
+import java.util.*;
+
+/**
+ * Implementação do algoritmo A* (A-Star)
+ * Dijkstra guiado por uma heurística: a distância geodésica (Haversine)
+ * de cada Oblast até o destino, multiplicada por {@link GraphSnapshot#getGeoScale()}
+ * para nunca superestimar o custo real (heurística admissível e consistente).
+ */
+public class AStar {
+
+    /**
+     * Executa A* para encontrar o caminho mais curto
+     */
+    public static AlgorithmResult execute(Graph graph, String startId, String endId) {
+        return execute(graph.getSnapshot(), startId, endId);
+    }
+
+    /**
+     * Executa A* diretamente sobre a fotografia CSR do grafo
+     */
+    public static AlgorithmResult execute(GraphSnapshot snapshot, String startId, String endId) {
+        long startTime = System.currentTimeMillis();
+
+        AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
+                .setAlgorithmName("A* (Haversine)");
+
+        int startIdx = snapshot.indexOf(startId);
+        int endIdx = snapshot.indexOf(endId);
+
+        if (startIdx < 0 || endIdx < 0) {
+            return resultBuilder.setError("Oblast não encontrado").build();
+        }
+
+        int n = snapshot.getNodeCount();
+        double[] distances = new double[n];   // g(v)
+        double[] heuristic = new double[n];   // h(v), calculada sob demanda
+        int[] parent = new int[n];
+        boolean[] closed = new boolean[n];
+        IndexedMinHeap open = new IndexedMinHeap(n); // ordenado por f = g + h
+
+        Oblast target = snapshot.getOblast(endIdx);
+        double scale = snapshot.getGeoScale();
+
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(heuristic, Double.NaN);
+        distances[startIdx] = 0.0;
+        parent[startIdx] = -1;
+        open.insertOrDecrease(startIdx, estimate(snapshot, startIdx, target, scale, heuristic));
+
+        int nodesVisited = 0;
+        int edgesExplored = 0;
+
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            closed[current] = true;
+            nodesVisited++;
+            Cancellation.checkpoint(nodesVisited);
+
+            if (current == endIdx) {
+                break;
+            }
+
+            double currentDist = distances[current];
+
+            for (int e = snapshot.firstEdge(current); e < snapshot.endEdge(current); e++) {
+                if (!snapshot.isUsable(e)) continue;
+                edgesExplored++;
+
+                int neighbor = snapshot.getTarget(e);
+                if (closed[neighbor]) continue; // Heurística consistente: fechado é definitivo
+
+                double newDist = currentDist + snapshot.getWeight(e);
+                if (newDist < distances[neighbor]) {
+                    distances[neighbor] = newDist;
+                    parent[neighbor] = current;
+                    open.insertOrDecrease(neighbor,
+                            newDist + estimate(snapshot, neighbor, target, scale, heuristic));
+                }
+            }
+        }
+
+        long endTime = System.currentTimeMillis();
+
+        if (distances[endIdx] == Double.POSITIVE_INFINITY) {
+            return resultBuilder
+                    .setError("Não existe caminho entre os Oblasts")
+                    .setExecutionTime(endTime - startTime)
+                    .setNodesVisited(nodesVisited)
+                    .setEdgesExplored(edgesExplored)
+                    .build();
+        }
+
+        List<Oblast> path = snapshot.buildPath(parent, endIdx);
+
+        Route route = new Route.Builder()
+                .setPath(path)
+                .setTotalDistance(snapshot.pathDistance(path))
+                .setTotalCost(distances[endIdx])
+                .setAlgorithm("A*")
+                .setComputationTime(endTime - startTime)
+                .setOptimal(true)
+                .build();
+
+        return resultBuilder
+                .setMainRoute(route)
+                .setExecutionTime(endTime - startTime)
+                .setNodesVisited(nodesVisited)
+                .setEdgesExplored(edgesExplored)
+                .addMetadata("heuristic_scale", scale)
+                .build();
+    }
+
+    /**
+     * h(v): limite inferior do custo de v até o destino
+     */
+    private static double estimate(GraphSnapshot snapshot, int node, Oblast target,
+                                   double scale, double[] cache) {
+        double h = cache[node];
+        if (Double.isNaN(h)) {
+            h = scale * snapshot.getOblast(node).distanceTo(target);
+            cache[node] = h;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,239 @@
+package com.isctem.ukraine.algorithm;
+
+import com.isctem.ukraine.model.*;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Tabela de distâncias e próximos saltos entre todos os pares de Oblasts.
+ *
+ * Cada linha é o resultado de um Dijkstra a partir de uma origem; as linhas
+ * são calculadas em paralelo no ForkJoinPool comum. Depois de alterações na
+ * rede, {@link #refresh} recalcula apenas as linhas afetadas:
+ * - piora de u -> v: linhas em que a aresta era "tensa" (d[s][u] + w == d[s][v]);
+ * - melhoria de u -> v: linhas em que d[s][u] + w_novo < d[s][v].
+ *
+ * Memória O(V²). Instâncias são imutáveis e partilham as linhas não recalculadas.
+ */
+public class AllPairsShortestPaths {
+    private static final double EPSILON = 1e-9;
+
+    private final GraphSnapshot snapshot;
+    private final double[][] distances; // [s][v] = d(s, v)
+    private final int[][] nextHops;     // [s][v] = primeiro vértice após s no caminho até v (-1 se inalcançável)
+    private final int recomputedRows;
+
+    private AllPairsShortestPaths(GraphSnapshot snapshot, double[][] distances,
+                                  int[][] nextHops, int recomputedRows) {
+        this.snapshot = snapshot;
+        this.distances = distances;
+        this.nextHops = nextHops;
+        this.recomputedRows = recomputedRows;
+    }
+
+    /**
+     * Calcula a tabela completa (um Dijkstra por origem, em paralelo)
+     */
+    public static AllPairsShortestPaths compute(GraphSnapshot snapshot) {
+        int n = snapshot.getNodeCount();
+        boolean[] rows = new boolean[n];
+        Arrays.fill(rows, true);
+
+        double[][] distances = new double[n][];
+        int[][] nextHops = new int[n][];
+        computeRows(snapshot, rows, distances, nextHops);
+        return new AllPairsShortestPaths(snapshot, distances, nextHops, 0);
+    }
+
+    /**
+     * Sincroniza a tabela com a fotografia atual recalculando só as linhas
+     * afetadas. Esta instância não é alterada. Retorna null se a estrutura
+     * mudou e a tabela deve ser recalculada com {@link #compute}.
+     */
+    public AllPairsShortestPaths refresh(GraphSnapshot current) {
+        if (current == snapshot) return this;
+        if (!current.hasSameLayout(snapshot)) return null;
+
+        int n = current.getNodeCount();
+        boolean[] dirty = new boolean[n];
+
+        for (int u = 0; u < n; u++) {
+            for (int e = current.firstEdge(u); e < current.endEdge(u); e++) {
+                boolean wasUsable = snapshot.isUsable(e);
+                boolean isUsable = current.isUsable(e);
+                double oldWeight = snapshot.getWeight(e);
+                double newWeight = current.getWeight(e);
+                int v = current.getTarget(e);
+
+                if (wasUsable && (!isUsable || newWeight > oldWeight)) {
+                    markTightRows(u, v, oldWeight, dirty);
+                }
+                if (isUsable && (!wasUsable || newWeight < oldWeight)) {
+                    markImprovedRows(u, v, newWeight, dirty);
+                }
+            }
+        }
+
+        double[][] newDistances = distances.clone();
+        int[][] newNextHops = nextHops.clone();
+        int recomputed = computeRows(current, dirty, newDistances, newNextHops);
+        return new AllPairsShortestPaths(current, newDistances, newNextHops, recomputedRows + recomputed);
+    }
+
+    private void markTightRows(int u, int v, double weight, boolean[] dirty) {
+        for (int s = 0; s < distances.length; s++) {
+            if (dirty[s] || distances[s] == null) continue;
+            double before = distances[s][u];
+            double after = distances[s][v];
+            if (before != Double.POSITIVE_INFINITY
+                    && Math.abs(before + weight - after) <= EPSILON * Math.max(1.0, after)) {
+                dirty[s] = true;
+            }
+        }
+    }
+
+    private void markImprovedRows(int u, int v, double weight, boolean[] dirty) {
+        for (int s = 0; s < distances.length; s++) {
+            if (dirty[s] || distances[s] == null) continue;
+            if (distances[s][u] + weight < distances[s][v] - EPSILON) {
+                dirty[s] = true;
+            }
+        }
+    }
+
+    /**
+     * Calcula em paralelo as linhas marcadas; retorna quantas foram calculadas
+     */
+    private static int computeRows(GraphSnapshot snapshot, boolean[] rows,
+                                   double[][] distances, int[][] nextHops) {
+        int n = snapshot.getNodeCount();
+        int[] sources = IntStream.range(0, n)
+                .filter(s -> rows[s] && snapshot.hasNode(s))
+                .toArray();
+
+        IntStream.of(sources).parallel().forEach(source -> {
+            double[] dist = new double[n];
+            int[] parent = new int[n];
+            Dijkstra.search(snapshot, source, -1, dist, parent, new IndexedMinHeap(n), new int[2]);
+
+            distances[source] = dist;
+            nextHops[source] = nextHopsFromTree(source, parent, dist);
+        });
+
+        return sources.length;
+    }
+
+    /**
+     * Próximo salto a partir da origem para cada vértice, pela árvore de pais
+     */
+    private static int[] nextHopsFromTree(int source, int[] parent, double[] dist) {
+        int n = parent.length;
+        int[] next = new int[n];
+        int[] stack = new int[n];
+        Arrays.fill(next, -1);
+        next[source] = source;
+
+        for (int v = 0; v < n; v++) {
+            if (next[v] != -1 || dist[v] == Double.POSITIVE_INFINITY) continue;
+
+            // Subir até um vértice já resolvido ou filho direto da origem
+            int top = 0;
+            int x = v;
+            while (next[x] == -1 && parent[x] != source) {
+                stack[top++] = x;
+                x = parent[x];
+            }
+            if (next[x] == -1) {
+                next[x] = x;
+            }
+            int hop = next[x];
+            while (top > 0) {
+                next[stack[--top]] = hop;
+            }
+        }
+        return next;
+    }
+
+    // ========== CONSULTAS ==========
+
+    /**
+     * Distância mínima entre dois Oblasts (infinito se inalcançável ou inexistente)
+     */
+    public double getDistance(String fromId, String toId) {
+        int from = snapshot.indexOf(fromId);
+        int to = snapshot.indexOf(toId);
+        if (from < 0 || to < 0) return Double.POSITIVE_INFINITY;
+        return getDistance(from, to);
+    }
+
+    public double getDistance(int from, int to) {
+        double[] row = distances[from];
+        return row != null ? row[to] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Primeiro vértice após from no caminho mínimo até to, ou -1
+     */
+    public int getNextHop(int from, int to) {
+        int[] row = nextHops[from];
+        return row != null ? row[to] : -1;
+    }
+
+    /**
+     * Caminho mínimo completo seguindo os próximos saltos (vazio se inalcançável)
+     */
+    public List<Oblast> getPath(String fromId, String toId) {
+        int from = snapshot.indexOf(fromId);
+        int to = snapshot.indexOf(toId);
+        if (from < 0 || to < 0) {
+            return new ArrayList<>();
+        }
+        return getPath(from, to);
+    }
+
+    public List<Oblast> getPath(int from, int to) {
+        List<Oblast> path = new ArrayList<>();
+        if (getNextHop(from, to) == -1) {
+            return path;
+        }
+
+        // Um caminho simples tem no máximo n - 1 saltos. Com arestas de peso
+        // zero as árvores de linhas diferentes podem apontar uma para a outra;
+        // nesse caso o caminho vem da árvore da própria origem
+        int n = snapshot.getNodeCount();
+        int steps = 0;
+        path.add(snapshot.getOblast(from));
+        for (int current = from; current != to; ) {
+            current = getNextHop(current, to);
+            if (current == -1 || ++steps >= n) {
+                return pathFromSource(from, to);
+            }
+            path.add(snapshot.getOblast(current));
+        }
+        return path;
+    }
+
+    private List<Oblast> pathFromSource(int from, int to) {
+        int n = snapshot.getNodeCount();
+        double[] dist = new double[n];
+        int[] parent = new int[n];
+        Dijkstra.search(snapshot, from, to, dist, parent, new IndexedMinHeap(n), new int[2]);
+        if (dist[to] == Double.POSITIVE_INFINITY) {
+            return new ArrayList<>();
+        }
+        return snapshot.buildPath(parent, to);
+    }
+
+    // ========== GETTERS ==========
+
+    public GraphSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Total de linhas recalculadas por refresh desde o cálculo inicial
+     */
+    public int getRecomputedRows() {
+        return recomputedRows;
+    }
+}
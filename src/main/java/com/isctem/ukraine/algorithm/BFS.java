@@ -13,60 +13,69 @@ public class BFS {
      * Executa BFS para encontrar caminho entre origem e destino
      */
     public static AlgorithmResult execute(Graph graph, String startId, String endId) {
+        return execute(graph.getSnapshot(), startId, endId);
+    }
+
+    /**
+     * Executa BFS diretamente sobre a fotografia CSR do grafo
+     */
+    public static AlgorithmResult execute(GraphSnapshot snapshot, String startId, String endId) {
         long startTime = System.currentTimeMillis();
 
         AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
                 .setAlgorithmName("BFS (Breadth-First Search)");
 
-        Oblast start = graph.getOblast(startId);
-        Oblast end = graph.getOblast(endId);
+        int startIdx = snapshot.indexOf(startId);
+        int endIdx = snapshot.indexOf(endId);
 
-        if (start == null || end == null) {
+        if (startIdx < 0 || endIdx < 0) {
             return resultBuilder.setError("Oblast de origem ou destino não encontrado").build();
         }
 
-        // Estruturas auxiliares
-        Queue<String> queue = new LinkedList<>();
-        Set<String> visited = new HashSet<>();
-        Map<String, String> parent = new HashMap<>();
-        Map<String, Double> distance = new HashMap<>();
+        Oblast start = snapshot.getOblast(startIdx);
+        Oblast end = snapshot.getOblast(endIdx);
+
+        // Estruturas auxiliares (fila circular em array: cada nó entra uma vez)
+        int n = snapshot.getNodeCount();
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        boolean[] visited = new boolean[n];
+        int[] parent = new int[n];
+        double[] distance = new double[n];
 
         // Inicialização
-        queue.offer(startId);
-        visited.add(startId);
-        parent.put(startId, null);
-        distance.put(startId, 0.0);
+        queue[tail++] = startIdx;
+        visited[startIdx] = true;
+        parent[startIdx] = -1;
 
         int nodesVisited = 0;
         int edgesExplored = 0;
         boolean foundPath = false;
 
         // BFS Loop
-        while (!queue.isEmpty()) {
-            String currentId = queue.poll();
+        while (head < tail) {
+            int current = queue[head++];
             nodesVisited++;
+            Cancellation.checkpoint(nodesVisited);
 
             // Se chegou no destino, para
-            if (currentId.equals(endId)) {
+            if (current == endIdx) {
                 foundPath = true;
                 break;
             }
 
             // Explorar vizinhos
-            List<Oblast> neighbors = graph.getNeighbors(currentId);
-            for (Oblast neighbor : neighbors) {
-                String neighborId = neighbor.getId();
+            for (int e = snapshot.firstEdge(current); e < snapshot.endEdge(current); e++) {
+                if (!snapshot.isUsable(e)) continue;
                 edgesExplored++;
 
-                if (!visited.contains(neighborId)) {
-                    visited.add(neighborId);
-                    parent.put(neighborId, currentId);
-
-                    double currentDist = distance.get(currentId);
-                    double edgeDist = graph.getDistance(currentId, neighborId);
-                    distance.put(neighborId, currentDist + edgeDist);
-
-                    queue.offer(neighborId);
+                int neighbor = snapshot.getTarget(e);
+                if (!visited[neighbor]) {
+                    visited[neighbor] = true;
+                    parent[neighbor] = current;
+                    distance[neighbor] = distance[current] + snapshot.getWeight(e);
+                    queue[tail++] = neighbor;
                 }
             }
         }
@@ -83,12 +92,13 @@ public class BFS {
         }
 
         // Reconstruir caminho
-        List<Oblast> path = reconstructPath(graph, parent, startId, endId);
-        double totalDistance = distance.get(endId);
+        List<Oblast> path = snapshot.buildPath(parent, endIdx);
+        double totalDistance = distance[endIdx];
 
         Route route = new Route.Builder()
                 .setPath(path)
-                .setTotalDistance(totalDistance)
+                .setTotalDistance(snapshot.pathDistance(path))
+                .setTotalCost(totalDistance)
                 .setAlgorithm("BFS")
                 .setComputationTime(endTime - startTime)
                 .setOptimal(false)
@@ -99,7 +109,7 @@ public class BFS {
                 .setExecutionTime(endTime - startTime)
                 .setNodesVisited(nodesVisited)
                 .setEdgesExplored(edgesExplored)
-                .addMetadata("visited_order", new ArrayList<>(visited))
+                .addMetadata("visited_order", toIds(snapshot, queue, tail))
                 .build();
     }
 
@@ -107,31 +117,48 @@ public class BFS {
      * Executa BFS visitando todos os nós (traversal completo)
      */
     public static AlgorithmResult executeFullTraversal(Graph graph, String startId) {
+        return executeFullTraversal(graph.getSnapshot(), startId);
+    }
+
+    /**
+     * Traversal completo sobre a fotografia CSR
+     */
+    public static AlgorithmResult executeFullTraversal(GraphSnapshot snapshot, String startId) {
         long startTime = System.currentTimeMillis();
 
         AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
                 .setAlgorithmName("BFS Full Traversal");
 
-        Queue<String> queue = new LinkedList<>();
-        Set<String> visited = new HashSet<>();
-        List<String> visitOrder = new ArrayList<>();
+        int startIdx = snapshot.indexOf(startId);
+        if (startIdx < 0) {
+            return resultBuilder.setError("Oblast inicial não encontrado").build();
+        }
+
+        int n = snapshot.getNodeCount();
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        boolean[] visited = new boolean[n];
 
-        queue.offer(startId);
-        visited.add(startId);
+        queue[tail++] = startIdx;
+        visited[startIdx] = true;
 
         int nodesVisited = 0;
         int edgesExplored = 0;
 
-        while (!queue.isEmpty()) {
-            String currentId = queue.poll();
-            visitOrder.add(currentId);
+        while (head < tail) {
+            int current = queue[head++];
             nodesVisited++;
+            Cancellation.checkpoint(nodesVisited);
 
-            for (Oblast neighbor : graph.getNeighbors(currentId)) {
+            for (int e = snapshot.firstEdge(current); e < snapshot.endEdge(current); e++) {
+                if (!snapshot.isUsable(e)) continue;
                 edgesExplored++;
-                if (!visited.contains(neighbor.getId())) {
-                    visited.add(neighbor.getId());
-                    queue.offer(neighbor.getId());
+
+                int neighbor = snapshot.getTarget(e);
+                if (!visited[neighbor]) {
+                    visited[neighbor] = true;
+                    queue[tail++] = neighbor;
                 }
             }
         }
@@ -142,21 +169,16 @@ public class BFS {
                 .setExecutionTime(endTime - startTime)
                 .setNodesVisited(nodesVisited)
                 .setEdgesExplored(edgesExplored)
-                .addMetadata("visit_order", visitOrder)
-                .addMetadata("total_reachable", visited.size())
+                .addMetadata("visit_order", toIds(snapshot, queue, tail))
+                .addMetadata("total_reachable", tail)
                 .build();
     }
 
-    private static List<Oblast> reconstructPath(Graph graph, Map<String, String> parent,
-                                                String startId, String endId) {
-        List<Oblast> path = new ArrayList<>();
-        String current = endId;
-
-        while (current != null) {
-            path.add(0, graph.getOblast(current));
-            current = parent.get(current);
+    private static List<String> toIds(GraphSnapshot snapshot, int[] nodes, int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(snapshot.getId(nodes[i]));
         }
-
-        return path;
+        return ids;
     }
-}
\ No newline at end of file
+}
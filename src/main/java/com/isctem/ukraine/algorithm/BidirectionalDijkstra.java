@@ -0,0 +1,153 @@
+package com.isctem.ukraine.algorithm;
+
+import com.isctem.ukraine.model.*;
+import java.util.*;
+
+/**
+ * Implementação do Dijkstra Bidirecional
+ * Executa uma busca a partir da origem e outra a partir do destino
+ * (no grafo transposto) e para quando as fronteiras garantem o ótimo:
+ * topo(frente) + topo(trás) >= melhor caminho encontrado.
+ */
+public class BidirectionalDijkstra {
+
+    /**
+     * Executa Dijkstra bidirecional para encontrar o caminho mais curto
+     */
+    public static AlgorithmResult execute(Graph graph, String startId, String endId) {
+        return execute(graph.getSnapshot(), startId, endId);
+    }
+
+    /**
+     * Executa Dijkstra bidirecional diretamente sobre a fotografia CSR
+     */
+    public static AlgorithmResult execute(GraphSnapshot snapshot, String startId, String endId) {
+        long startTime = System.currentTimeMillis();
+
+        AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
+                .setAlgorithmName("Dijkstra Bidirecional");
+
+        int startIdx = snapshot.indexOf(startId);
+        int endIdx = snapshot.indexOf(endId);
+
+        if (startIdx < 0 || endIdx < 0) {
+            return resultBuilder.setError("Oblast não encontrado").build();
+        }
+
+        GraphSnapshot backward = snapshot.reversed();
+        int n = snapshot.getNodeCount();
+
+        // Estado da busca para a frente (origem) e para trás (destino)
+        double[] distF = new double[n];
+        double[] distB = new double[n];
+        int[] parentF = new int[n];
+        int[] parentB = new int[n];
+        boolean[] settledF = new boolean[n];
+        boolean[] settledB = new boolean[n];
+        IndexedMinHeap heapF = new IndexedMinHeap(n);
+        IndexedMinHeap heapB = new IndexedMinHeap(n);
+
+        Arrays.fill(distF, Double.POSITIVE_INFINITY);
+        Arrays.fill(distB, Double.POSITIVE_INFINITY);
+        parentF[startIdx] = -1;
+        parentB[endIdx] = -1;
+        distF[startIdx] = 0.0;
+        distB[endIdx] = 0.0;
+        heapF.insertOrDecrease(startIdx, 0.0);
+        heapB.insertOrDecrease(endIdx, 0.0);
+
+        // Melhor caminho conhecido (mu) e vértice de encontro
+        double best = startIdx == endIdx ? 0.0 : Double.POSITIVE_INFINITY;
+        int meeting = startIdx == endIdx ? startIdx : -1;
+
+        int forwardSettled = 0;
+        int backwardSettled = 0;
+        int edgesExplored = 0;
+
+        while (!heapF.isEmpty() && !heapB.isEmpty()) {
+            // Critério de parada: nenhum caminho por vértices não fixados pode ser melhor
+            if (heapF.peekKey() + heapB.peekKey() >= best) {
+                break;
+            }
+
+            // Expandir o lado com a fronteira mais barata
+            boolean forwardTurn = heapF.peekKey() <= heapB.peekKey();
+            GraphSnapshot side = forwardTurn ? snapshot : backward;
+            IndexedMinHeap heap = forwardTurn ? heapF : heapB;
+            double[] dist = forwardTurn ? distF : distB;
+            double[] otherDist = forwardTurn ? distB : distF;
+            int[] parent = forwardTurn ? parentF : parentB;
+            boolean[] settled = forwardTurn ? settledF : settledB;
+
+            int current = heap.poll();
+            settled[current] = true;
+            if (forwardTurn) {
+                forwardSettled++;
+            } else {
+                backwardSettled++;
+            }
+            Cancellation.checkpoint(forwardSettled + backwardSettled);
+
+            double currentDist = dist[current];
+
+            for (int e = side.firstEdge(current); e < side.endEdge(current); e++) {
+                if (!side.isUsable(e)) continue;
+                edgesExplored++;
+
+                int neighbor = side.getTarget(e);
+                if (settled[neighbor]) continue;
+
+                double newDist = currentDist + side.getWeight(e);
+                if (newDist < dist[neighbor]) {
+                    dist[neighbor] = newDist;
+                    parent[neighbor] = current;
+                    heap.insertOrDecrease(neighbor, newDist);
+                }
+
+                // Atualizar melhor caminho se as duas buscas já alcançaram o vizinho
+                double candidate = dist[neighbor] + otherDist[neighbor];
+                if (candidate < best) {
+                    best = candidate;
+                    meeting = neighbor;
+                }
+            }
+        }
+
+        long endTime = System.currentTimeMillis();
+        int nodesVisited = forwardSettled + backwardSettled;
+
+        if (meeting == -1) {
+            return resultBuilder
+                    .setError("Não existe caminho entre os Oblasts")
+                    .setExecutionTime(endTime - startTime)
+                    .setNodesVisited(nodesVisited)
+                    .setEdgesExplored(edgesExplored)
+                    .build();
+        }
+
+        // Reconstruir caminho: origem -> encontro (pais da frente) + encontro -> destino (pais de trás)
+        List<Oblast> path = snapshot.buildPath(parentF, meeting);
+        for (int current = parentB[meeting]; current != -1; current = parentB[current]) {
+            path.add(snapshot.getOblast(current));
+        }
+
+        Route route = new Route.Builder()
+                .setPath(path)
+                .setTotalDistance(snapshot.pathDistance(path))
+                .setTotalCost(best)
+                .setAlgorithm("Dijkstra Bidirecional")
+                .setComputationTime(endTime - startTime)
+                .setOptimal(true)
+                .build();
+
+        return resultBuilder
+                .setMainRoute(route)
+                .setExecutionTime(endTime - startTime)
+                .setNodesVisited(nodesVisited)
+                .setEdgesExplored(edgesExplored)
+                .addMetadata("meeting_point", snapshot.getId(meeting))
+                .addMetadata("forward_settled", forwardSettled)
+                .addMetadata("backward_settled", backwardSettled)
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.isctem.ukraine.algorithm;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Ponto de cancelamento dos ciclos principais dos algoritmos.
+ *
+ * Uma execução cuja thread foi interrompida (ex.: tempo limite excedido em
+ * {@code GraphService.executeAllAlgorithmsConcurrently}) termina com
+ * {@link CancellationException} em vez de continuar até ao fim. A
+ * verificação só é feita a cada 1024 iterações para não pesar no ciclo.
+ */
+final class Cancellation {
+    private static final int CHECK_INTERVAL_MASK = 1023;
+
+    private Cancellation() {
+    }
+
+    static void checkpoint(int iteration) {
+        if ((iteration & CHECK_INTERVAL_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Execução cancelada");
+        }
+    }
+}
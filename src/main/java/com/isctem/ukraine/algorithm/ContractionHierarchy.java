@@ -0,0 +1,528 @@
+package com.isctem.ukraine.algorithm;
+
+import com.isctem.ukraine.model.*;
+import java.util.*;
+
+/**
+ * Contraction Hierarchies (CH) para consultas ponto-a-ponto numa fotografia estática.
+ *
+ * Pré-processamento: os vértices são contraídos por ordem de importância
+ * (diferença de arestas + vizinhos já contraídos, com atualização preguiçosa).
+ * Ao contrair v, cada par u -> v -> w sem caminho testemunha mais curto
+ * recebe um atalho u -> w cujo vértice intermédio é v.
+ *
+ * Consulta: Dijkstra bidirecional que só sobe na hierarquia; os atalhos
+ * são desempacotados no fim para devolver o caminho completo de Oblasts.
+ */
+public class ContractionHierarchy {
+    // Limite de vértices fixados por busca de testemunha (sem testemunha -> atalho)
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    private final GraphSnapshot snapshot;
+    private final int[] rank;
+
+    // Arestas para cima: em u, arestas u -> w com rank[w] > rank[u]
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final double[] upWeights;
+    private final int[] upMiddles;
+
+    // Arestas para baixo (invertidas): em w, arestas u -> w com rank[u] > rank[w]
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final double[] downWeights;
+    private final int[] downMiddles;
+
+    private final int shortcutCount;
+    private final long preprocessingTimeMs;
+
+    private ContractionHierarchy(GraphSnapshot snapshot, int[] rank,
+                                 EdgeList[] upEdges, EdgeList[] downEdges,
+                                 int shortcutCount, long preprocessingTimeMs) {
+        this.snapshot = snapshot;
+        this.rank = rank;
+        this.shortcutCount = shortcutCount;
+        this.preprocessingTimeMs = preprocessingTimeMs;
+
+        int n = snapshot.getNodeCount();
+        this.upOffsets = new int[n + 1];
+        this.downOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            upOffsets[v + 1] = upOffsets[v] + (upEdges[v] != null ? upEdges[v].size : 0);
+            downOffsets[v + 1] = downOffsets[v] + (downEdges[v] != null ? downEdges[v].size : 0);
+        }
+
+        this.upTargets = new int[upOffsets[n]];
+        this.upWeights = new double[upOffsets[n]];
+        this.upMiddles = new int[upOffsets[n]];
+        this.downSources = new int[downOffsets[n]];
+        this.downWeights = new double[downOffsets[n]];
+        this.downMiddles = new int[downOffsets[n]];
+
+        for (int v = 0; v < n; v++) {
+            if (upEdges[v] != null) {
+                upEdges[v].copyTo(upOffsets[v], upTargets, upWeights, upMiddles);
+            }
+            if (downEdges[v] != null) {
+                downEdges[v].copyTo(downOffsets[v], downSources, downWeights, downMiddles);
+            }
+        }
+    }
+
+    // ========== PRÉ-PROCESSAMENTO ==========
+
+    /**
+     * Constrói a hierarquia a partir da fotografia CSR (arestas utilizáveis)
+     */
+    public static ContractionHierarchy build(GraphSnapshot snapshot) {
+        long startTime = System.currentTimeMillis();
+        return new Contractor(snapshot).run(startTime);
+    }
+
+    /**
+     * Estado mutável usado apenas durante a contração
+     */
+    private static final class Contractor {
+        private final GraphSnapshot snapshot;
+        private final int n;
+        private final EdgeList[] out;
+        private final EdgeList[] in;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private final int[] rank;
+
+        // Área de trabalho da busca de testemunhas (reinicializada só nos vértices tocados)
+        private final double[] witnessDist;
+        private final int[] touched;
+        private int touchedCount;
+        private final IndexedMinHeap witnessHeap;
+
+        private int shortcutCount;
+
+        Contractor(GraphSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.n = snapshot.getNodeCount();
+            this.out = new EdgeList[n];
+            this.in = new EdgeList[n];
+            this.contracted = new boolean[n];
+            this.contractedNeighbors = new int[n];
+            this.rank = new int[n];
+            this.witnessDist = new double[n];
+            this.touched = new int[n];
+            this.witnessHeap = new IndexedMinHeap(n);
+
+            Arrays.fill(rank, -1);
+            Arrays.fill(witnessDist, Double.POSITIVE_INFINITY);
+
+            for (int u = 0; u < n; u++) {
+                if (snapshot.hasNode(u)) {
+                    out[u] = new EdgeList();
+                    in[u] = new EdgeList();
+                }
+            }
+            for (int u = 0; u < n; u++) {
+                for (int e = snapshot.firstEdge(u); e < snapshot.endEdge(u); e++) {
+                    int v = snapshot.getTarget(e);
+                    if (!snapshot.isUsable(e) || v == u) continue;
+                    out[u].addOrRelax(v, snapshot.getWeight(e), -1);
+                    in[v].addOrRelax(u, snapshot.getWeight(e), -1);
+                }
+            }
+        }
+
+        ContractionHierarchy run(long startTime) {
+            EdgeList[] upEdges = new EdgeList[n];
+            EdgeList[] downEdges = new EdgeList[n];
+
+            IndexedMinHeap queue = new IndexedMinHeap(n);
+            for (int v = 0; v < n; v++) {
+                if (snapshot.hasNode(v)) {
+                    queue.insertOrDecrease(v, priority(v));
+                }
+            }
+
+            int order = 0;
+            while (!queue.isEmpty()) {
+                int v = queue.poll();
+                Cancellation.checkpoint(order);
+
+                // Atualização preguiçosa: se a prioridade piorou, volta para a fila
+                double current = priority(v);
+                if (!queue.isEmpty() && current > queue.peekKey()) {
+                    queue.insertOrDecrease(v, current);
+                    continue;
+                }
+
+                addShortcuts(v, true);
+
+                // As arestas restantes de v ligam a vértices de rank superior
+                rank[v] = order++;
+                contracted[v] = true;
+                upEdges[v] = out[v];
+                downEdges[v] = in[v];
+
+                for (int i = 0; i < out[v].size; i++) {
+                    int w = out[v].nodes[i];
+                    in[w].remove(v);
+                    contractedNeighbors[w]++;
+                }
+                for (int i = 0; i < in[v].size; i++) {
+                    int u = in[v].nodes[i];
+                    out[u].remove(v);
+                    contractedNeighbors[u]++;
+                }
+            }
+
+            long time = System.currentTimeMillis() - startTime;
+            return new ContractionHierarchy(snapshot, rank, upEdges, downEdges, shortcutCount, time);
+        }
+
+        /**
+         * Diferença de arestas + vizinhos contraídos (menor = contrair primeiro)
+         */
+        private double priority(int v) {
+            int shortcuts = addShortcuts(v, false);
+            return shortcuts - (in[v].size + out[v].size) + contractedNeighbors[v];
+        }
+
+        /**
+         * Conta (e, se apply, insere) os atalhos necessários para contrair v
+         */
+        private int addShortcuts(int v, boolean apply) {
+            int count = 0;
+
+            for (int i = 0; i < in[v].size; i++) {
+                int u = in[v].nodes[i];
+                double toV = in[v].weights[i];
+
+                // Sem vizinhos de saída além de u não há atalhos (pesos 0 contam)
+                double maxOut = 0;
+                boolean hasTarget = false;
+                for (int j = 0; j < out[v].size; j++) {
+                    if (out[v].nodes[j] != u) {
+                        maxOut = Math.max(maxOut, out[v].weights[j]);
+                        hasTarget = true;
+                    }
+                }
+                if (!hasTarget) continue;
+
+                witnessSearch(u, v, toV + maxOut);
+
+                for (int j = 0; j < out[v].size; j++) {
+                    int w = out[v].nodes[j];
+                    if (w == u) continue;
+
+                    double via = toV + out[v].weights[j];
+                    if (witnessDist[w] > via) {
+                        count++;
+                        if (apply) {
+                            if (out[u].addOrRelax(w, via, v)) {
+                                shortcutCount++;
+                            }
+                            in[w].addOrRelax(u, via, v);
+                        }
+                    }
+                }
+
+                resetWitness();
+            }
+
+            return count;
+        }
+
+        /**
+         * Dijkstra limitado a partir de source, ignorando o vértice a contrair
+         */
+        private void witnessSearch(int source, int excluded, double maxCost) {
+            witnessHeap.clear();
+            touch(source, 0.0);
+            witnessHeap.insertOrDecrease(source, 0.0);
+
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled < WITNESS_SETTLE_LIMIT) {
+                if (witnessHeap.peekKey() > maxCost) break;
+
+                int x = witnessHeap.poll();
+                settled++;
+
+                EdgeList edges = out[x];
+                for (int i = 0; i < edges.size; i++) {
+                    int y = edges.nodes[i];
+                    if (y == excluded) continue;
+
+                    double d = witnessDist[x] + edges.weights[i];
+                    if (d < witnessDist[y]) {
+                        touch(y, d);
+                        witnessHeap.insertOrDecrease(y, d);
+                    }
+                }
+            }
+        }
+
+        private void touch(int node, double dist) {
+            if (witnessDist[node] == Double.POSITIVE_INFINITY) {
+                touched[touchedCount++] = node;
+            }
+            witnessDist[node] = dist;
+        }
+
+        private void resetWitness() {
+            for (int i = 0; i < touchedCount; i++) {
+                witnessDist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+        }
+    }
+
+    // ========== CONSULTA ==========
+
+    /**
+     * Caminho mais curto entre dois Oblasts usando a hierarquia
+     */
+    public AlgorithmResult query(String startId, String endId) {
+        long startTime = System.currentTimeMillis();
+
+        AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
+                .setAlgorithmName("Contraction Hierarchies");
+
+        int startIdx = snapshot.indexOf(startId);
+        int endIdx = snapshot.indexOf(endId);
+
+        if (startIdx < 0 || endIdx < 0) {
+            return resultBuilder.setError("Oblast não encontrado").build();
+        }
+
+        int n = snapshot.getNodeCount();
+        double[] distF = new double[n];
+        double[] distB = new double[n];
+        int[] parentF = new int[n];
+        int[] parentB = new int[n];
+        int[] middleF = new int[n];
+        int[] middleB = new int[n];
+        IndexedMinHeap heapF = new IndexedMinHeap(n);
+        IndexedMinHeap heapB = new IndexedMinHeap(n);
+
+        Arrays.fill(distF, Double.POSITIVE_INFINITY);
+        Arrays.fill(distB, Double.POSITIVE_INFINITY);
+        distF[startIdx] = 0.0;
+        distB[endIdx] = 0.0;
+        parentF[startIdx] = -1;
+        parentB[endIdx] = -1;
+        heapF.insertOrDecrease(startIdx, 0.0);
+        heapB.insertOrDecrease(endIdx, 0.0);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        int nodesVisited = 0;
+        int edgesExplored = 0;
+
+        while (!heapF.isEmpty() || !heapB.isEmpty()) {
+            // Cada lado para quando o seu mínimo já não pode melhorar o resultado
+            if (!heapF.isEmpty() && heapF.peekKey() >= best) heapF.clear();
+            if (!heapB.isEmpty() && heapB.peekKey() >= best) heapB.clear();
+            if (heapF.isEmpty() && heapB.isEmpty()) break;
+
+            boolean forward = heapB.isEmpty()
+                    || (!heapF.isEmpty() && heapF.peekKey() <= heapB.peekKey());
+
+            int u = forward ? heapF.poll() : heapB.poll();
+            nodesVisited++;
+            Cancellation.checkpoint(nodesVisited);
+
+            double candidate = distF[u] + distB[u];
+            if (candidate < best) {
+                best = candidate;
+                meeting = u;
+            }
+
+            if (forward) {
+                for (int e = upOffsets[u]; e < upOffsets[u + 1]; e++) {
+                    edgesExplored++;
+                    int w = upTargets[e];
+                    double d = distF[u] + upWeights[e];
+                    if (d < distF[w]) {
+                        distF[w] = d;
+                        parentF[w] = u;
+                        middleF[w] = upMiddles[e];
+                        heapF.insertOrDecrease(w, d);
+                    }
+                }
+            } else {
+                for (int e = downOffsets[u]; e < downOffsets[u + 1]; e++) {
+                    edgesExplored++;
+                    int w = downSources[e];
+                    double d = distB[u] + downWeights[e];
+                    if (d < distB[w]) {
+                        distB[w] = d;
+                        parentB[w] = u;
+                        middleB[w] = downMiddles[e];
+                        heapB.insertOrDecrease(w, d);
+                    }
+                }
+            }
+        }
+
+        long endTime = System.currentTimeMillis();
+
+        if (meeting == -1) {
+            return resultBuilder
+                    .setError("Não existe caminho entre os Oblasts")
+                    .setExecutionTime(endTime - startTime)
+                    .setNodesVisited(nodesVisited)
+                    .setEdgesExplored(edgesExplored)
+                    .build();
+        }
+
+        List<Oblast> path = unpackPath(startIdx, meeting, parentF, middleF, parentB, middleB);
+        Route route = new Route.Builder()
+                .setPath(path)
+                .setTotalDistance(snapshot.pathDistance(path))
+                .setTotalCost(best)
+                .setAlgorithm("Contraction Hierarchies")
+                .setComputationTime(endTime - startTime)
+                .setOptimal(true)
+                .build();
+
+        return resultBuilder
+                .setMainRoute(route)
+                .setExecutionTime(endTime - startTime)
+                .setNodesVisited(nodesVisited)
+                .setEdgesExplored(edgesExplored)
+                .addMetadata("meeting_point", snapshot.getId(meeting))
+                .addMetadata("shortcuts", shortcutCount)
+                .addMetadata("preprocessing_ms", preprocessingTimeMs)
+                .build();
+    }
+
+    /**
+     * Caminho completo: sobe de start até meeting e desce até o destino,
+     * expandindo cada atalho nos vértices originais
+     */
+    private List<Oblast> unpackPath(int startIdx, int meeting,
+                                    int[] parentF, int[] middleF,
+                                    int[] parentB, int[] middleB) {
+        // Arestas (a, b, meio) na ordem do percurso
+        List<int[]> hops = new ArrayList<>();
+        for (int v = meeting; v != startIdx; v = parentF[v]) {
+            hops.add(new int[]{parentF[v], v, middleF[v]});
+        }
+        Collections.reverse(hops);
+        for (int v = meeting; parentB[v] != -1; v = parentB[v]) {
+            hops.add(new int[]{v, parentB[v], middleB[v]});
+        }
+
+        List<Oblast> path = new ArrayList<>();
+        path.add(snapshot.getOblast(startIdx));
+
+        Deque<int[]> stack = new ArrayDeque<>();
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            stack.push(hops.get(i));
+        }
+
+        while (!stack.isEmpty()) {
+            int[] hop = stack.pop();
+            int middle = hop[2];
+            if (middle == -1) {
+                path.add(snapshot.getOblast(hop[1]));
+            } else {
+                // a -> meio está guardada como aresta "para baixo" do meio;
+                // meio -> b como aresta "para cima" do meio
+                stack.push(new int[]{middle, hop[1], middleOfUp(middle, hop[1])});
+                stack.push(new int[]{hop[0], middle, middleOfDown(hop[0], middle)});
+            }
+        }
+
+        return path;
+    }
+
+    private int middleOfUp(int from, int to) {
+        for (int e = upOffsets[from]; e < upOffsets[from + 1]; e++) {
+            if (upTargets[e] == to) return upMiddles[e];
+        }
+        throw new IllegalStateException("Atalho inconsistente: " + from + " -> " + to);
+    }
+
+    private int middleOfDown(int from, int to) {
+        for (int e = downOffsets[to]; e < downOffsets[to + 1]; e++) {
+            if (downSources[e] == from) return downMiddles[e];
+        }
+        throw new IllegalStateException("Atalho inconsistente: " + from + " -> " + to);
+    }
+
+    // ========== GETTERS ==========
+
+    /**
+     * Fotografia sobre a qual a hierarquia foi construída
+     */
+    public GraphSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getShortcutCount() {
+        return shortcutCount;
+    }
+
+    public long getPreprocessingTimeMs() {
+        return preprocessingTimeMs;
+    }
+
+    public int getRank(String oblastId) {
+        int index = snapshot.indexOf(oblastId);
+        return index >= 0 ? rank[index] : -1;
+    }
+
+    // ========== CLASSE AUXILIAR ==========
+
+    /**
+     * Lista de adjacência dinâmica em arrays (no máximo uma aresta por vizinho)
+     */
+    private static final class EdgeList {
+        int[] nodes = new int[4];
+        double[] weights = new double[4];
+        int[] middles = new int[4];
+        int size;
+
+        /**
+         * Insere a aresta ou reduz o peso da existente; retorna true se inseriu
+         */
+        boolean addOrRelax(int node, double weight, int middle) {
+            for (int i = 0; i < size; i++) {
+                if (nodes[i] == node) {
+                    if (weight < weights[i]) {
+                        weights[i] = weight;
+                        middles[i] = middle;
+                    }
+                    return false;
+                }
+            }
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+                middles = Arrays.copyOf(middles, size * 2);
+            }
+            nodes[size] = node;
+            weights[size] = weight;
+            middles[size] = middle;
+            size++;
+            return true;
+        }
+
+        void remove(int node) {
+            for (int i = 0; i < size; i++) {
+                if (nodes[i] == node) {
+                    size--;
+                    nodes[i] = nodes[size];
+                    weights[i] = weights[size];
+                    middles[i] = middles[size];
+                    return;
+                }
+            }
+        }
+
+        void copyTo(int offset, int[] nodesOut, double[] weightsOut, int[] middlesOut) {
+            System.arraycopy(nodes, 0, nodesOut, offset, size);
+            System.arraycopy(weights, 0, weightsOut, offset, size);
+            System.arraycopy(middles, 0, middlesOut, offset, size);
+        }
+    }
+}
@@ -13,24 +13,83 @@ public class DFS {
      * Executa DFS para encontrar caminho entre origem e destino
      */
     public static AlgorithmResult execute(Graph graph, String startId, String endId) {
+        return execute(graph.getSnapshot(), startId, endId);
+    }
+
+    /**
+     * Executa DFS diretamente sobre a fotografia CSR do grafo.
+     * A recursão é simulada com uma pilha explícita (mesma ordem de visita,
+     * sem risco de StackOverflow em grafos grandes).
+     */
+    public static AlgorithmResult execute(GraphSnapshot snapshot, String startId, String endId) {
         long startTime = System.currentTimeMillis();
 
         AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
                 .setAlgorithmName("DFS (Depth-First Search)");
 
-        Oblast start = graph.getOblast(startId);
-        Oblast end = graph.getOblast(endId);
+        int startIdx = snapshot.indexOf(startId);
+        int endIdx = snapshot.indexOf(endId);
 
-        if (start == null || end == null) {
+        if (startIdx < 0 || endIdx < 0) {
             return resultBuilder.setError("Oblast de origem ou destino não encontrado").build();
         }
 
-        Set<String> visited = new HashSet<>();
-        Map<String, String> parent = new HashMap<>();
-        Map<String, Double> distance = new HashMap<>();
-        int[] counters = {0, 0}; // [nodesVisited, edgesExplored]
+        Oblast start = snapshot.getOblast(startIdx);
+        Oblast end = snapshot.getOblast(endIdx);
+
+        int n = snapshot.getNodeCount();
+        boolean[] visited = new boolean[n];
+        int[] parent = new int[n];
+        double[] distance = new double[n];
+        int[] visitOrder = new int[n];
+
+        // Pilha de recursão: nó + próxima aresta a explorar desse nó
+        int[] stack = new int[n];
+        int[] nextEdge = new int[n];
+        int top = 0;
+
+        int nodesVisited = 0;
+        int edgesExplored = 0;
+
+        visited[startIdx] = true;
+        parent[startIdx] = -1;
+        visitOrder[nodesVisited++] = startIdx;
+        boolean found = startIdx == endIdx;
+
+        if (!found) {
+            stack[top++] = startIdx;
+            nextEdge[startIdx] = snapshot.firstEdge(startIdx);
+        }
 
-        boolean found = dfsRecursive(graph, startId, endId, visited, parent, distance, counters);
+        while (top > 0 && !found) {
+            int current = stack[top - 1];
+            Cancellation.checkpoint(nodesVisited);
+
+            // Todas as arestas exploradas: retroceder
+            if (nextEdge[current] == snapshot.endEdge(current)) {
+                top--;
+                continue;
+            }
+
+            int e = nextEdge[current]++;
+            if (!snapshot.isUsable(e)) continue;
+            edgesExplored++;
+
+            int neighbor = snapshot.getTarget(e);
+            if (!visited[neighbor]) {
+                parent[neighbor] = current;
+                distance[neighbor] = distance[current] + snapshot.getWeight(e);
+                visited[neighbor] = true;
+                visitOrder[nodesVisited++] = neighbor;
+
+                if (neighbor == endIdx) {
+                    found = true;
+                } else {
+                    stack[top++] = neighbor;
+                    nextEdge[neighbor] = snapshot.firstEdge(neighbor);
+                }
+            }
+        }
 
         long endTime = System.currentTimeMillis();
 
@@ -38,108 +97,98 @@ public class DFS {
             return resultBuilder
                     .setError("Não existe caminho entre " + start.getName() + " e " + end.getName())
                     .setExecutionTime(endTime - startTime)
-                    .setNodesVisited(counters[0])
-                    .setEdgesExplored(counters[1])
+                    .setNodesVisited(nodesVisited)
+                    .setEdgesExplored(edgesExplored)
                     .build();
         }
 
-        List<Oblast> path = reconstructPath(graph, parent, startId, endId);
-        double totalDistance = distance.get(endId);
+        List<Oblast> path = snapshot.buildPath(parent, endIdx);
+        double totalDistance = distance[endIdx];
 
         Route route = new Route.Builder()
                 .setPath(path)
-                .setTotalDistance(totalDistance)
+                .setTotalDistance(snapshot.pathDistance(path))
+                .setTotalCost(totalDistance)
                 .setAlgorithm("DFS")
                 .setComputationTime(endTime - startTime)
                 .setOptimal(false)
                 .build();
 
+        List<String> visitedIds = new ArrayList<>(nodesVisited);
+        for (int i = 0; i < nodesVisited; i++) {
+            visitedIds.add(snapshot.getId(visitOrder[i]));
+        }
+
         return resultBuilder
                 .setMainRoute(route)
                 .setExecutionTime(endTime - startTime)
-                .setNodesVisited(counters[0])
-                .setEdgesExplored(counters[1])
-                .addMetadata("visited_order", new ArrayList<>(visited))
+                .setNodesVisited(nodesVisited)
+                .setEdgesExplored(edgesExplored)
+                .addMetadata("visited_order", visitedIds)
                 .build();
     }
 
-    private static boolean dfsRecursive(Graph graph, String currentId, String targetId,
-                                        Set<String> visited, Map<String, String> parent,
-                                        Map<String, Double> distance, int[] counters) {
-        visited.add(currentId);
-        counters[0]++; // nodesVisited
-
-        if (!distance.containsKey(currentId)) {
-            distance.put(currentId, 0.0);
-        }
-
-        if (currentId.equals(targetId)) {
-            return true;
-        }
-
-        for (Oblast neighbor : graph.getNeighbors(currentId)) {
-            counters[1]++; // edgesExplored
-            String neighborId = neighbor.getId();
-
-            if (!visited.contains(neighborId)) {
-                parent.put(neighborId, currentId);
-                double currentDist = distance.get(currentId);
-                double edgeDist = graph.getDistance(currentId, neighborId);
-                distance.put(neighborId, currentDist + edgeDist);
-
-                if (dfsRecursive(graph, neighborId, targetId, visited, parent, distance, counters)) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
-    }
-
     /**
      * DFS iterativo usando Stack
      */
     public static AlgorithmResult executeIterative(Graph graph, String startId, String endId) {
+        return executeIterative(graph.getSnapshot(), startId, endId);
+    }
+
+    /**
+     * DFS iterativo sobre a fotografia CSR (pilha em array)
+     */
+    public static AlgorithmResult executeIterative(GraphSnapshot snapshot, String startId, String endId) {
         long startTime = System.currentTimeMillis();
 
         AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
                 .setAlgorithmName("DFS Iterativo");
 
-        Stack<String> stack = new Stack<>();
-        Set<String> visited = new HashSet<>();
-        Map<String, String> parent = new HashMap<>();
-        Map<String, Double> distance = new HashMap<>();
+        int startIdx = snapshot.indexOf(startId);
+        int endIdx = snapshot.indexOf(endId);
+
+        if (startIdx < 0 || endIdx < 0) {
+            return resultBuilder.setError("Oblast de origem ou destino não encontrado").build();
+        }
+
+        int n = snapshot.getNodeCount();
+        // Cada aresta utilizável empilha no máximo um nó
+        int[] stack = new int[snapshot.getEdgeCount() + 1];
+        int top = 0;
+        boolean[] visited = new boolean[n];
+        int[] parent = new int[n];
+        double[] distance = new double[n];
 
-        stack.push(startId);
-        distance.put(startId, 0.0);
+        stack[top++] = startIdx;
+        parent[startIdx] = -1;
 
         int nodesVisited = 0;
         int edgesExplored = 0;
         boolean found = false;
 
-        while (!stack.isEmpty()) {
-            String currentId = stack.pop();
+        while (top > 0) {
+            int current = stack[--top];
 
-            if (visited.contains(currentId)) continue;
+            if (visited[current]) continue;
 
-            visited.add(currentId);
+            visited[current] = true;
             nodesVisited++;
+            Cancellation.checkpoint(nodesVisited);
 
-            if (currentId.equals(endId)) {
+            if (current == endIdx) {
                 found = true;
                 break;
             }
 
-            for (Oblast neighbor : graph.getNeighbors(currentId)) {
+            for (int e = snapshot.firstEdge(current); e < snapshot.endEdge(current); e++) {
+                if (!snapshot.isUsable(e)) continue;
                 edgesExplored++;
-                String neighborId = neighbor.getId();
-
-                if (!visited.contains(neighborId)) {
-                    parent.put(neighborId, currentId);
-                    double currentDist = distance.get(currentId);
-                    double edgeDist = graph.getDistance(currentId, neighborId);
-                    distance.put(neighborId, currentDist + edgeDist);
-                    stack.push(neighborId);
+
+                int neighbor = snapshot.getTarget(e);
+                if (!visited[neighbor]) {
+                    parent[neighbor] = current;
+                    distance[neighbor] = distance[current] + snapshot.getWeight(e);
+                    stack[top++] = neighbor;
                 }
             }
         }
@@ -150,11 +199,12 @@ public class DFS {
             return resultBuilder.setError("Caminho não encontrado").build();
         }
 
-        List<Oblast> path = reconstructPath(graph, parent, startId, endId);
+        List<Oblast> path = snapshot.buildPath(parent, endIdx);
 
         Route route = new Route.Builder()
                 .setPath(path)
-                .setTotalDistance(distance.get(endId))
+                .setTotalDistance(snapshot.pathDistance(path))
+                .setTotalCost(distance[endIdx])
                 .setAlgorithm("DFS Iterativo")
                 .setComputationTime(endTime - startTime)
                 .build();
@@ -166,17 +216,4 @@ public class DFS {
                 .setEdgesExplored(edgesExplored)
                 .build();
     }
-
-    private static List<Oblast> reconstructPath(Graph graph, Map<String, String> parent,
-                                                String startId, String endId) {
-        List<Oblast> path = new ArrayList<>();
-        String current = endId;
-
-        while (current != null) {
-            path.add(0, graph.getOblast(current));
-            current = parent.get(current);
-        }
-
-        return path;
-    }
-}
\ No newline at end of file
+}
@@ -5,7 +5,9 @@ import java.util.*;
 
 /**
  * Implementação do algoritmo de Dijkstra
- * Encontra o caminho mais curto entre dois vértices em grafo ponderado
+ * Encontra o caminho mais curto entre dois vértices em grafo ponderado.
+ * Trabalha sobre índices inteiros (double[] dist, int[] parent) com um
+ * heap indexado com decrease-key: nenhuma alocação por aresta relaxada.
  */
 public class Dijkstra {
 
@@ -13,76 +15,40 @@ public class Dijkstra {
      * Executa Dijkstra para encontrar o caminho mais curto
      */
     public static AlgorithmResult execute(Graph graph, String startId, String endId) {
+        return execute(graph.getSnapshot(), startId, endId);
+    }
+
+    /**
+     * Executa Dijkstra diretamente sobre a fotografia CSR do grafo
+     */
+    public static AlgorithmResult execute(GraphSnapshot snapshot, String startId, String endId) {
         long startTime = System.currentTimeMillis();
 
         AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
                 .setAlgorithmName("Dijkstra");
 
-        Oblast start = graph.getOblast(startId);
-        Oblast end = graph.getOblast(endId);
+        int startIdx = snapshot.indexOf(startId);
+        int endIdx = snapshot.indexOf(endId);
 
-        if (start == null || end == null) {
+        if (startIdx < 0 || endIdx < 0) {
             return resultBuilder.setError("Oblast não encontrado").build();
         }
 
         // Distâncias mínimas
-        Map<String, Double> distances = new HashMap<>();
-        Map<String, String> parent = new HashMap<>();
-        Set<String> visited = new HashSet<>();
-
-        // Priority Queue: ordena por distância
-        PriorityQueue<Node> pq = new PriorityQueue<>(Comparator.comparingDouble(n -> n.distance));
-
-        // Inicialização
-        for (Oblast oblast : graph.getAllOblasts()) {
-            distances.put(oblast.getId(), Double.POSITIVE_INFINITY);
-        }
-        distances.put(startId, 0.0);
-        parent.put(startId, null);
+        int n = snapshot.getNodeCount();
+        double[] distances = new double[n];
+        int[] parent = new int[n];
+        int[] counters = {0, 0}; // [nodesVisited, edgesExplored]
 
-        pq.offer(new Node(startId, 0.0));
+        search(snapshot, startIdx, endIdx, distances, parent, new IndexedMinHeap(n), counters);
 
-        int nodesVisited = 0;
-        int edgesExplored = 0;
-
-        while (!pq.isEmpty()) {
-            Node current = pq.poll();
-            String currentId = current.id;
-
-            if (visited.contains(currentId)) continue;
-
-            visited.add(currentId);
-            nodesVisited++;
-
-            // Se chegou no destino, pode parar (otimização)
-            if (currentId.equals(endId)) {
-                break;
-            }
-
-            double currentDist = distances.get(currentId);
-
-            // Relaxamento das arestas
-            for (Oblast neighbor : graph.getNeighbors(currentId)) {
-                edgesExplored++;
-                String neighborId = neighbor.getId();
-
-                if (visited.contains(neighborId)) continue;
-
-                double edgeDist = graph.getDistance(currentId, neighborId);
-                double newDist = currentDist + edgeDist;
-
-                if (newDist < distances.get(neighborId)) {
-                    distances.put(neighborId, newDist);
-                    parent.put(neighborId, currentId);
-                    pq.offer(new Node(neighborId, newDist));
-                }
-            }
-        }
+        int nodesVisited = counters[0];
+        int edgesExplored = counters[1];
 
         long endTime = System.currentTimeMillis();
 
         // Verificar se encontrou caminho
-        if (distances.get(endId) == Double.POSITIVE_INFINITY) {
+        if (distances[endIdx] == Double.POSITIVE_INFINITY) {
             return resultBuilder
                     .setError("Não existe caminho entre os Oblasts")
                     .setExecutionTime(endTime - startTime)
@@ -92,12 +58,13 @@ public class Dijkstra {
         }
 
         // Reconstruir caminho
-        List<Oblast> path = reconstructPath(graph, parent, startId, endId);
-        double totalDistance = distances.get(endId);
+        List<Oblast> path = snapshot.buildPath(parent, endIdx);
+        double totalDistance = distances[endIdx];
 
         Route route = new Route.Builder()
                 .setPath(path)
-                .setTotalDistance(totalDistance)
+                .setTotalDistance(snapshot.pathDistance(path))
+                .setTotalCost(totalDistance)
                 .setAlgorithm("Dijkstra")
                 .setComputationTime(endTime - startTime)
                 .setOptimal(true)
@@ -108,7 +75,7 @@ public class Dijkstra {
                 .setExecutionTime(endTime - startTime)
                 .setNodesVisited(nodesVisited)
                 .setEdgesExplored(edgesExplored)
-                .addMetadata("all_distances", new HashMap<>(distances))
+                .addMetadata("all_distances", toDistanceMap(snapshot, distances))
                 .build();
     }
 
@@ -116,81 +83,94 @@ public class Dijkstra {
      * Executa Dijkstra de um ponto para TODOS os outros (Single-Source Shortest Path)
      */
     public static Map<String, Route> executeToAll(Graph graph, String startId) {
-        Map<String, Double> distances = new HashMap<>();
-        Map<String, String> parent = new HashMap<>();
-        Set<String> visited = new HashSet<>();
+        return executeToAll(graph.getSnapshot(), startId);
+    }
 
-        PriorityQueue<Node> pq = new PriorityQueue<>(Comparator.comparingDouble(n -> n.distance));
+    /**
+     * Single-Source Shortest Path sobre a fotografia CSR
+     */
+    public static Map<String, Route> executeToAll(GraphSnapshot snapshot, String startId) {
+        Map<String, Route> routes = new HashMap<>();
 
-        for (Oblast oblast : graph.getAllOblasts()) {
-            distances.put(oblast.getId(), Double.POSITIVE_INFINITY);
+        int startIdx = snapshot.indexOf(startId);
+        if (startIdx < 0) {
+            return routes;
         }
-        distances.put(startId, 0.0);
-        parent.put(startId, null);
-
-        pq.offer(new Node(startId, 0.0));
-
-        while (!pq.isEmpty()) {
-            Node current = pq.poll();
-            String currentId = current.id;
-
-            if (visited.contains(currentId)) continue;
-            visited.add(currentId);
 
-            for (Oblast neighbor : graph.getNeighbors(currentId)) {
-                String neighborId = neighbor.getId();
-                if (visited.contains(neighborId)) continue;
+        int n = snapshot.getNodeCount();
+        double[] distances = new double[n];
+        int[] parent = new int[n];
 
-                double edgeDist = graph.getDistance(currentId, neighborId);
-                double newDist = distances.get(currentId) + edgeDist;
-
-                if (newDist < distances.get(neighborId)) {
-                    distances.put(neighborId, newDist);
-                    parent.put(neighborId, currentId);
-                    pq.offer(new Node(neighborId, newDist));
-                }
-            }
-        }
+        search(snapshot, startIdx, -1, distances, parent, new IndexedMinHeap(n), new int[2]);
 
         // Criar rotas para todos os destinos
-        Map<String, Route> routes = new HashMap<>();
-        for (String endId : distances.keySet()) {
-            if (!endId.equals(startId) && distances.get(endId) != Double.POSITIVE_INFINITY) {
-                List<Oblast> path = reconstructPath(graph, parent, startId, endId);
+        for (int endIdx = 0; endIdx < n; endIdx++) {
+            if (endIdx != startIdx && distances[endIdx] != Double.POSITIVE_INFINITY) {
+                List<Oblast> path = snapshot.buildPath(parent, endIdx);
                 Route route = new Route.Builder()
                         .setPath(path)
-                        .setTotalDistance(distances.get(endId))
+                        .setTotalDistance(snapshot.pathDistance(path))
+                        .setTotalCost(distances[endIdx])
                         .setAlgorithm("Dijkstra")
                         .setOptimal(true)
                         .build();
-                routes.put(endId, route);
+                routes.put(snapshot.getId(endIdx), route);
             }
         }
 
         return routes;
     }
 
-    private static List<Oblast> reconstructPath(Graph graph, Map<String, String> parent,
-                                                String startId, String endId) {
-        List<Oblast> path = new ArrayList<>();
-        String current = endId;
+    /**
+     * Núcleo do Dijkstra sobre índices. Preenche dist/parent a partir de
+     * {@code source}; para ao fixar {@code target} (ou percorre tudo se -1).
+     * counters = [nós fixados, arestas exploradas].
+     */
+    static void search(GraphSnapshot snapshot, int source, int target,
+                       double[] dist, int[] parent, IndexedMinHeap heap, int[] counters) {
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        heap.clear();
 
-        while (current != null) {
-            path.add(0, graph.getOblast(current));
-            current = parent.get(current);
-        }
+        dist[source] = 0.0;
+        heap.insertOrDecrease(source, 0.0);
 
-        return path;
-    }
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            counters[0]++;
+            Cancellation.checkpoint(counters[0]);
 
-    // Classe auxiliar para o PriorityQueue
-    private static class Node {
-        String id;
-        double distance;
+            // Se chegou no destino, pode parar (otimização)
+            if (current == target) {
+                return;
+            }
+
+            double currentDist = dist[current];
+
+            // Relaxamento das arestas
+            for (int e = snapshot.firstEdge(current); e < snapshot.endEdge(current); e++) {
+                if (!snapshot.isUsable(e)) continue;
+                counters[1]++;
+
+                int neighbor = snapshot.getTarget(e);
+                double newDist = currentDist + snapshot.getWeight(e);
 
-        Node(String id, double distance) {
-            this.id = id;
-            this.distance = distance;
+                if (newDist < dist[neighbor]) {
+                    dist[neighbor] = newDist;
+                    parent[neighbor] = current;
+                    heap.insertOrDecrease(neighbor, newDist);
+                }
+            }
+        }
+    }
+
+    private static Map<String, Double> toDistanceMap(GraphSnapshot snapshot, double[] distances) {
+        Map<String, Double> map = new HashMap<>();
+        for (int i = 0; i < distances.length; i++) {
+            if (snapshot.hasNode(i)) {
+                map.put(snapshot.getId(i), distances[i]);
+            }
         }
+        return map;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,263 @@
+package com.isctem.ukraine.algorithm;
+
+import com.isctem.ukraine.model.*;
+import java.util.*;
+
+/**
+ * Par de rotas disjuntas de custo total mínimo (Suurballe / Bhandari)
+ *
+ * 1. Dijkstra completo a partir da origem: caminho P1 e potenciais d(v).
+ * 2. Grafo residual: arestas de P1 invertidas com custo -w; em modo
+ *    nós-disjuntos os vértices interiores de P1 são divididos em entrada/saída.
+ * 3. Dijkstra no residual com custos reduzidos w + d(u) - d(v) >= 0: P2.
+ * 4. Arestas de P1 percorridas ao contrário por P2 cancelam-se; o que resta
+ *    decompõe-se em duas rotas disjuntas.
+ *
+ * Dois Dijkstras, O((V + E) log V); o residual nunca é materializado.
+ */
+public class DisjointPaths {
+
+    public static AlgorithmResult execute(Graph graph, String startId, String endId, boolean nodeDisjoint) {
+        return execute(graph.getSnapshot(), startId, endId, nodeDisjoint);
+    }
+
+    /**
+     * Calcula rota principal e rota de reserva sem arestas em comum
+     * (nodeDisjoint = true: também sem Oblasts intermédios em comum)
+     */
+    public static AlgorithmResult execute(GraphSnapshot snapshot, String startId, String endId,
+                                          boolean nodeDisjoint) {
+        long startTime = System.currentTimeMillis();
+
+        AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
+                .setAlgorithmName(nodeDisjoint ? "Suurballe (nós disjuntos)" : "Suurballe (arestas disjuntas)");
+
+        int source = snapshot.indexOf(startId);
+        int target = snapshot.indexOf(endId);
+
+        if (source < 0 || target < 0) {
+            return resultBuilder.setError("Oblast não encontrado").build();
+        }
+        if (source == target) {
+            return resultBuilder.setError("Origem e destino devem ser diferentes").build();
+        }
+
+        int n = snapshot.getNodeCount();
+        int[] counters = {0, 0};
+
+        // 1. Potenciais e primeiro caminho
+        double[] potential = new double[n];
+        int[] parent = new int[n];
+        Dijkstra.search(snapshot, source, -1, potential, parent, new IndexedMinHeap(n), counters);
+
+        if (potential[target] == Double.POSITIVE_INFINITY) {
+            return resultBuilder
+                    .setError("Não existe caminho entre os Oblasts")
+                    .setExecutionTime(System.currentTimeMillis() - startTime)
+                    .build();
+        }
+
+        // Predecessor em P1 e peso da aresta de P1 que entra em cada vértice
+        int[] pred = new int[n];
+        double[] predWeight = new double[n];
+        Arrays.fill(pred, -1);
+        for (int v = target; v != source; v = parent[v]) {
+            pred[v] = parent[v];
+            predWeight[v] = potential[v] - potential[parent[v]];
+        }
+
+        // 2-3. Dijkstra no residual. Estados: v (ou saída de v), n + v (entrada de v dividido)
+        Residual residual = new Residual(snapshot, source, target, pred, predWeight, potential, nodeDisjoint);
+        int[] stateParent = residual.search(counters);
+
+        long endTime = System.currentTimeMillis();
+
+        if (stateParent == null) {
+            return resultBuilder
+                    .setError("Não existe rota de reserva disjunta")
+                    .setExecutionTime(endTime - startTime)
+                    .setNodesVisited(counters[0])
+                    .setEdgesExplored(counters[1])
+                    .build();
+        }
+
+        // 4. União de P1 e P2 com cancelamento das arestas percorridas ao contrário
+        Map<Integer, Deque<double[]>> arcs = new HashMap<>();
+        Set<Long> cancelled = new HashSet<>();
+        for (int state = target; stateParent[state] != -1; state = stateParent[state]) {
+            int to = state % n;
+            int from = stateParent[state] % n;
+            if (from == to) continue; // aresta interna entrada/saída
+
+            if (pred[from] == to) {
+                cancelled.add(arcKey(to, from));
+            } else {
+                arcs.computeIfAbsent(from, k -> new ArrayDeque<>())
+                        .add(new double[]{to, residual.weightOf(stateParent[state], state)});
+            }
+        }
+        for (int v = target; v != source; v = pred[v]) {
+            if (!cancelled.contains(arcKey(pred[v], v))) {
+                arcs.computeIfAbsent(pred[v], k -> new ArrayDeque<>())
+                        .add(new double[]{v, predWeight[v]});
+            }
+        }
+
+        Route first = walk(snapshot, arcs, source, target, endTime - startTime);
+        Route second = walk(snapshot, arcs, source, target, endTime - startTime);
+        Route primary = first.getTotalCost() <= second.getTotalCost() ? first : second;
+        Route backup = primary == first ? second : first;
+
+        return resultBuilder
+                .setMainRoute(primary)
+                .addAlternativeRoute(backup)
+                .setExecutionTime(endTime - startTime)
+                .setNodesVisited(counters[0])
+                .setEdgesExplored(counters[1])
+                .addMetadata("combined_distance", primary.getTotalDistance() + backup.getTotalDistance())
+                .addMetadata("disjoint", nodeDisjoint ? "nodes" : "edges")
+                .build();
+    }
+
+    private static long arcKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+
+    /**
+     * Percorre (e consome) uma rota de source a target pelos arcos restantes
+     */
+    private static Route walk(GraphSnapshot snapshot, Map<Integer, Deque<double[]>> arcs,
+                              int source, int target, long timeMs) {
+        List<Oblast> path = new ArrayList<>();
+        double distance = 0;
+        path.add(snapshot.getOblast(source));
+        for (int v = source; v != target; ) {
+            double[] arc = arcs.get(v).poll();
+            v = (int) arc[0];
+            distance += arc[1];
+            path.add(snapshot.getOblast(v));
+        }
+        return new Route.Builder()
+                .setPath(path)
+                .setTotalDistance(snapshot.pathDistance(path))
+                .setTotalCost(distance)
+                .setAlgorithm("Suurballe")
+                .setComputationTime(timeMs)
+                .build();
+    }
+
+    // ========== GRAFO RESIDUAL ==========
+
+    /**
+     * Residual implícito sobre a fotografia: as arestas de P1 são lidas
+     * invertidas e os vértices divididos só existem como índices de estado
+     */
+    private static class Residual {
+        private final GraphSnapshot snapshot;
+        private final int n;
+        private final int source;
+        private final int target;
+        private final int[] pred;
+        private final double[] predWeight;
+        private final double[] potential;
+        private final boolean nodeDisjoint;
+        private final boolean[] split;
+
+        Residual(GraphSnapshot snapshot, int source, int target, int[] pred, double[] predWeight,
+                 double[] potential, boolean nodeDisjoint) {
+            this.snapshot = snapshot;
+            this.n = snapshot.getNodeCount();
+            this.source = source;
+            this.target = target;
+            this.pred = pred;
+            this.predWeight = predWeight;
+            this.potential = potential;
+            this.nodeDisjoint = nodeDisjoint;
+            this.split = new boolean[n];
+            if (nodeDisjoint) {
+                for (int v = pred[target]; v != source; v = pred[v]) {
+                    split[v] = true;
+                }
+            }
+        }
+
+        /**
+         * Dijkstra com custos reduzidos; retorna os pais dos estados ou null
+         */
+        int[] search(int[] counters) {
+            double[] dist = new double[2 * n];
+            int[] parent = new int[2 * n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(parent, -1);
+            IndexedMinHeap heap = new IndexedMinHeap(2 * n);
+
+            dist[source] = 0.0;
+            heap.insertOrDecrease(source, 0.0);
+
+            while (!heap.isEmpty()) {
+                int state = heap.poll();
+                counters[0]++;
+                if (state == target) {
+                    return parent;
+                }
+
+                int v = state % n;
+                double base = dist[state] + potential[v];
+
+                if (state >= n) {
+                    // Entrada de um vértice dividido: só recua por P1
+                    relax(state, pred[v], base - predWeight[v], dist, parent, heap);
+                    continue;
+                }
+                if (split[v]) {
+                    relax(state, n + v, base, dist, parent, heap);
+                } else if (!nodeDisjoint && pred[v] != -1) {
+                    // Aresta de P1 percorrida ao contrário
+                    relax(state, pred[v], base - predWeight[v], dist, parent, heap);
+                }
+
+                for (int e = snapshot.firstEdge(v); e < snapshot.endEdge(v); e++) {
+                    if (!snapshot.isUsable(e)) continue;
+                    counters[1]++;
+
+                    int z = snapshot.getTarget(e);
+                    // Arestas de P1 só existem invertidas (tratadas acima); em grafos
+                    // direcionados v -> z é outra aresta mesmo que P1 use z -> v
+                    if (pred[z] == v || (!snapshot.isDirected() && pred[v] == z)) continue;
+                    if (z == source || potential[z] == Double.POSITIVE_INFINITY) continue;
+
+                    relax(state, split[z] ? n + z : z, base + snapshot.getWeight(e), dist, parent, heap);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * absolute = custo real acumulado até ao fim do arco; o valor
+         * guardado no heap é o custo reduzido (absolute - potencial)
+         */
+        private void relax(int from, int to, double absolute, double[] dist, int[] parent, IndexedMinHeap heap) {
+            double reduced = absolute - potential[to % n];
+            if (reduced < dist[to]) {
+                dist[to] = reduced;
+                parent[to] = from;
+                heap.insertOrDecrease(to, reduced);
+            }
+        }
+
+        /**
+         * Peso real do arco de avanço entre dois estados (menor aresta utilizável)
+         */
+        double weightOf(int fromState, int toState) {
+            int from = fromState % n;
+            int to = toState % n;
+            double best = Double.POSITIVE_INFINITY;
+            for (int e = snapshot.firstEdge(from); e < snapshot.endEdge(from); e++) {
+                if (snapshot.isUsable(e) && snapshot.getTarget(e) == to) {
+                    best = Math.min(best, snapshot.getWeight(e));
+                }
+            }
+            return best;
+        }
+    }
+}
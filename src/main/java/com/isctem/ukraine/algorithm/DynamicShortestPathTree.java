@@ -0,0 +1,307 @@
+package com.isctem.ukraine.algorithm;
+
+import com.isctem.ukraine.model.*;
+import java.util.*;
+
+/**
+ * Árvore de caminhos mínimos a partir de uma origem mantida dinamicamente.
+ *
+ * Em vez de repetir {@link Dijkstra#executeToAll} a cada alteração,
+ * {@link #update} repara só o necessário:
+ * - aresta da árvore destruída ou mais cara: a subárvore abaixo dela é
+ *   desligada e religada a partir dos vizinhos não afetados;
+ * - aresta reparada ou mais barata: propagação tipo Dijkstra só a partir
+ *   dos vértices cuja distância melhora.
+ *
+ * Pode ser ligada a um {@link Graph} ({@link #attach}) e atualiza-se em
+ * cada modificação publicada. Segura para várias threads.
+ */
+public class DynamicShortestPathTree implements Graph.ChangeListener {
+    private final String sourceId;
+    private final WeightFunction weightFunction;
+
+    private GraphSnapshot snapshot;
+    private int source;
+    private double[] dist;
+    private int[] parent;
+
+    // Estatísticas
+    private long updates;
+    private long fullRebuilds;
+    private long repairedNodes;
+
+    private DynamicShortestPathTree(GraphSnapshot snapshot, String sourceId) {
+        this.sourceId = sourceId;
+        this.weightFunction = snapshot.getWeightFunction();
+        rebuild(snapshot);
+    }
+
+    /**
+     * Calcula a árvore inicial sobre uma fotografia
+     */
+    public static DynamicShortestPathTree build(GraphSnapshot snapshot, String sourceId) {
+        return new DynamicShortestPathTree(snapshot, sourceId);
+    }
+
+    /**
+     * Calcula a árvore sobre a fotografia atual do grafo (com os pesos da
+     * função indicada) e regista-a como observador, para que destruições e
+     * reparações a mantenham atualizada
+     */
+    public static DynamicShortestPathTree attach(Graph graph, String sourceId, WeightFunction weightFunction) {
+        DynamicShortestPathTree tree = new DynamicShortestPathTree(
+                graph.getSnapshot().withWeights(weightFunction), sourceId);
+        graph.addChangeListener(tree);
+        // Modificação publicada entre a fotografia e o registo
+        tree.update(graph.getSnapshot().withWeights(weightFunction));
+        return tree;
+    }
+
+    @Override
+    public void graphChanged(GraphSnapshot before, GraphSnapshot after) {
+        update(after.withWeights(weightFunction));
+    }
+
+    // ========== ATUALIZAÇÃO ==========
+
+    /**
+     * Sincroniza a árvore com uma fotografia mais recente. Se a estrutura
+     * mudou (Oblasts/conexões adicionados ou removidos) recalcula tudo.
+     */
+    public synchronized void update(GraphSnapshot current) {
+        if (current == snapshot || current.getVersion() < snapshot.getVersion()) return;
+        updates++;
+
+        if (!current.hasSameLayout(snapshot) || source < 0) {
+            rebuild(current);
+            return;
+        }
+
+        int n = current.getNodeCount();
+        List<Integer> worsenedHeads = new ArrayList<>();
+        List<Integer> improvedEdges = new ArrayList<>();
+
+        for (int u = 0; u < n; u++) {
+            for (int e = current.firstEdge(u); e < current.endEdge(u); e++) {
+                boolean wasUsable = snapshot.isUsable(e);
+                boolean isUsable = current.isUsable(e);
+                double oldWeight = snapshot.getWeight(e);
+                double newWeight = current.getWeight(e);
+
+                if (wasUsable && (!isUsable || newWeight > oldWeight)) {
+                    int v = current.getTarget(e);
+                    if (parent[v] == u) {
+                        worsenedHeads.add(v);
+                    }
+                }
+                if (isUsable && (!wasUsable || newWeight < oldWeight)) {
+                    improvedEdges.add(e);
+                }
+            }
+        }
+
+        snapshot = current;
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+
+        if (!worsenedHeads.isEmpty()) {
+            detachSubtrees(current, worsenedHeads, heap);
+        }
+        for (int e : improvedEdges) {
+            int u = current.sourceOf(e);
+            relax(u, current.getTarget(e), current.getWeight(e), heap);
+        }
+
+        propagate(current, heap);
+    }
+
+    /**
+     * Desliga as subárvores afetadas e candidata cada vértice delas com a
+     * melhor aresta de entrada vinda de um vértice não afetado
+     */
+    private void detachSubtrees(GraphSnapshot current, List<Integer> heads, IndexedMinHeap heap) {
+        int n = current.getNodeCount();
+
+        // Filhos de cada vértice na árvore (CSR a partir do array de pais)
+        int[] childStart = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            if (parent[v] >= 0) childStart[parent[v] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            childStart[v + 1] += childStart[v];
+        }
+        int[] children = new int[childStart[n]];
+        int[] next = Arrays.copyOf(childStart, n);
+        for (int v = 0; v < n; v++) {
+            if (parent[v] >= 0) children[next[parent[v]]++] = v;
+        }
+
+        boolean[] affected = new boolean[n];
+        int[] stack = new int[n];
+        int[] affectedNodes = new int[n];
+        int affectedCount = 0;
+
+        for (int head : heads) {
+            if (affected[head]) continue;
+            int top = 0;
+            stack[top++] = head;
+            affected[head] = true;
+            while (top > 0) {
+                int v = stack[--top];
+                affectedNodes[affectedCount++] = v;
+                for (int c = childStart[v]; c < childStart[v + 1]; c++) {
+                    if (!affected[children[c]]) {
+                        affected[children[c]] = true;
+                        stack[top++] = children[c];
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < affectedCount; i++) {
+            int v = affectedNodes[i];
+            dist[v] = Double.POSITIVE_INFINITY;
+            parent[v] = -1;
+        }
+
+        GraphSnapshot incoming = current.reversed();
+        for (int i = 0; i < affectedCount; i++) {
+            int v = affectedNodes[i];
+            for (int e = incoming.firstEdge(v); e < incoming.endEdge(v); e++) {
+                if (!incoming.isUsable(e)) continue;
+                int u = incoming.getTarget(e);
+                if (!affected[u]) {
+                    relax(u, v, incoming.getWeight(e), heap);
+                }
+            }
+        }
+        repairedNodes += affectedCount;
+    }
+
+    private void relax(int u, int v, double weight, IndexedMinHeap heap) {
+        double newDist = dist[u] + weight;
+        if (newDist < dist[v]) {
+            dist[v] = newDist;
+            parent[v] = u;
+            heap.insertOrDecrease(v, newDist);
+        }
+    }
+
+    /**
+     * Dijkstra a partir dos vértices já no heap; os restantes mantêm as distâncias
+     */
+    private void propagate(GraphSnapshot current, IndexedMinHeap heap) {
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            repairedNodes++;
+            for (int e = current.firstEdge(u); e < current.endEdge(u); e++) {
+                if (current.isUsable(e)) {
+                    relax(u, current.getTarget(e), current.getWeight(e), heap);
+                }
+            }
+        }
+    }
+
+    private void rebuild(GraphSnapshot current) {
+        int n = current.getNodeCount();
+        snapshot = current;
+        source = current.indexOf(sourceId);
+        dist = new double[n];
+        parent = new int[n];
+
+        if (source >= 0) {
+            Dijkstra.search(current, source, -1, dist, parent, new IndexedMinHeap(n), new int[2]);
+        } else {
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(parent, -1);
+        }
+        fullRebuilds++;
+    }
+
+    // ========== CONSULTAS ==========
+
+    /**
+     * Distância mínima da origem até o Oblast (infinito se inalcançável)
+     */
+    public synchronized double getDistance(String oblastId) {
+        int index = snapshot.indexOf(oblastId);
+        return index >= 0 ? dist[index] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Caminho mínimo da origem até o Oblast (vazio se inalcançável)
+     */
+    public synchronized List<Oblast> getPath(String oblastId) {
+        int index = snapshot.indexOf(oblastId);
+        if (index < 0 || dist[index] == Double.POSITIVE_INFINITY) {
+            return new ArrayList<>();
+        }
+        return snapshot.buildPath(parent, index);
+    }
+
+    /**
+     * Rota até o Oblast mais próximo da origem entre os indicados, ou null
+     * se nenhum for alcançável. Distância e caminho vêm do mesmo estado da
+     * árvore (uma atualização concorrente não os pode separar).
+     */
+    public synchronized Route getRouteToNearest(Collection<String> oblastIds) {
+        int nearest = -1;
+        for (String oblastId : oblastIds) {
+            int index = snapshot.indexOf(oblastId);
+            if (index >= 0 && dist[index] != Double.POSITIVE_INFINITY
+                    && (nearest < 0 || dist[index] < dist[nearest])) {
+                nearest = index;
+            }
+        }
+        return nearest >= 0 ? buildRoute(nearest) : null;
+    }
+
+    /**
+     * Rotas para todos os destinos alcançáveis (mesmo formato de
+     * {@link Dijkstra#executeToAll})
+     */
+    public synchronized Map<String, Route> getRoutes() {
+        Map<String, Route> routes = new HashMap<>();
+        for (int v = 0; v < dist.length; v++) {
+            if (v != source && dist[v] != Double.POSITIVE_INFINITY) {
+                routes.put(snapshot.getId(v), buildRoute(v));
+            }
+        }
+        return routes;
+    }
+
+    private Route buildRoute(int target) {
+        List<Oblast> path = snapshot.buildPath(parent, target);
+        return new Route.Builder()
+                .setPath(path)
+                .setTotalDistance(snapshot.pathDistance(path))
+                .setTotalCost(dist[target])
+                .setAlgorithm("Dijkstra (dinâmico)")
+                .setOptimal(true)
+                .build();
+    }
+
+    // ========== GETTERS ==========
+
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    public synchronized GraphSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public synchronized long getUpdateCount() {
+        return updates;
+    }
+
+    public synchronized long getFullRebuildCount() {
+        return fullRebuilds;
+    }
+
+    /**
+     * Vértices desligados ou reavaliados desde a criação (sem contar reconstruções)
+     */
+    public synchronized long getRepairedNodeCount() {
+        return repairedNodes;
+    }
+}
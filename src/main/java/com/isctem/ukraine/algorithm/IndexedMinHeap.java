@@ -0,0 +1,157 @@
+package com.isctem.ukraine.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Heap binário mínimo indexado por vértice (0..capacity-1).
+ * Suporta decrease-key em O(log V), pelo que cada vértice aparece
+ * no máximo uma vez (sem entradas obsoletas) e não há alocação por aresta.
+ */
+public class IndexedMinHeap {
+    private final int[] heap;      // posição -> vértice
+    private final int[] position;  // vértice -> posição (-1 se ausente)
+    private final double[] keys;   // vértice -> prioridade
+    private int size;
+
+    /**
+     * Construtor
+     */
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(position, -1);
+        this.size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int node) {
+        return position[node] != -1;
+    }
+
+    public double getKey(int node) {
+        return keys[node];
+    }
+
+    /**
+     * Menor prioridade presente (sem remover)
+     */
+    public double peekKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Vértice com menor prioridade (sem remover)
+     */
+    public int peek() {
+        return heap[0];
+    }
+
+    /**
+     * Insere o vértice ou diminui a sua prioridade se já estiver no heap
+     */
+    public void insertOrDecrease(int node, double key) {
+        if (position[node] == -1) {
+            heap[size] = node;
+            position[node] = size;
+            keys[node] = key;
+            siftUp(size++);
+        } else if (key < keys[node]) {
+            keys[node] = key;
+            siftUp(position[node]);
+        }
+    }
+
+    /**
+     * Remove e retorna o vértice com menor prioridade
+     */
+    public int poll() {
+        int min = heap[0];
+        int last = heap[--size];
+        position[min] = -1;
+
+        if (size > 0) {
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Remove o vértice do heap (se presente)
+     */
+    public void remove(int node) {
+        int i = position[node];
+        if (i == -1) return;
+
+        int last = heap[--size];
+        position[node] = -1;
+
+        if (i < size) {
+            heap[i] = last;
+            position[last] = i;
+            siftUp(i);
+            siftDown(position[last]);
+        }
+    }
+
+    /**
+     * Esvazia o heap em O(size), permitindo reutilização entre consultas
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        int node = heap[i];
+        double key = keys[node];
+
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int parentNode = heap[parent];
+            if (keys[parentNode] <= key) break;
+
+            heap[i] = parentNode;
+            position[parentNode] = i;
+            i = parent;
+        }
+
+        heap[i] = node;
+        position[node] = i;
+    }
+
+    private void siftDown(int i) {
+        int node = heap[i];
+        double key = keys[node];
+        int half = size >>> 1;
+
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+
+            int childNode = heap[child];
+            if (key <= keys[childNode]) break;
+
+            heap[i] = childNode;
+            position[childNode] = i;
+            i = child;
+        }
+
+        heap[i] = node;
+        position[node] = i;
+    }
+}
@@ -14,37 +14,64 @@ public class Kruskal {
      * Executa Kruskal para encontrar MST
      */
     public static AlgorithmResult execute(Graph graph) {
+        return execute(graph.getSnapshot());
+    }
+
+    /**
+     * Executa Kruskal diretamente sobre a fotografia CSR do grafo
+     */
+    public static AlgorithmResult execute(GraphSnapshot snapshot) {
         long startTime = System.currentTimeMillis();
 
         AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
                 .setAlgorithmName("Kruskal (MST)");
 
-        // 1. Obter todas as arestas
-        List<Edge> edges = getAllEdges(graph);
-
-        // 2. Ordenar arestas por peso
-        edges.sort(Comparator.comparingDouble(e -> e.weight));
+        // 1-2. Obter todas as arestas (índices CSR) ordenadas por peso
+        int[] edges = getSortedEdges(snapshot);
 
         // 3. Inicializar Union-Find
-        UnionFind uf = new UnionFind(graph.getAllOblasts());
+        int n = snapshot.getNodeCount();
+        UnionFind uf = new UnionFind(n);
+
+        int existingNodes = 0;
+        for (int i = 0; i < n; i++) {
+            if (snapshot.hasNode(i)) existingNodes++;
+        }
 
         // 4. MST result
         List<Edge> mstEdges = new ArrayList<>();
+        List<Oblast> pathOblasts = new ArrayList<>();
+        boolean[] inPath = new boolean[n];
         double totalWeight = 0;
+        double totalDistance = 0;
         int edgesExplored = 0;
 
         // 5. Algoritmo de Kruskal
-        for (Edge edge : edges) {
+        for (int e : edges) {
             edgesExplored++;
+            Cancellation.checkpoint(edgesExplored);
+
+            int from = snapshot.sourceOf(e);
+            int to = snapshot.getTarget(e);
 
             // Se não forma ciclo, adiciona à MST
-            if (uf.find(edge.from) != uf.find(edge.to)) {
-                uf.union(edge.from, edge.to);
-                mstEdges.add(edge);
-                totalWeight += edge.weight;
+            if (uf.union(from, to)) {
+                double weight = snapshot.getWeight(e);
+                mstEdges.add(new Edge(snapshot.getId(from), snapshot.getId(to), weight));
+                totalWeight += weight;
+                totalDistance += snapshot.getConnection(e).getDistance();
+
+                if (!inPath[from]) {
+                    inPath[from] = true;
+                    pathOblasts.add(snapshot.getOblast(from));
+                }
+                if (!inPath[to]) {
+                    inPath[to] = true;
+                    pathOblasts.add(snapshot.getOblast(to));
+                }
 
                 // MST completa quando tem (V-1) arestas
-                if (mstEdges.size() == graph.getNodeCount() - 1) {
+                if (mstEdges.size() == existingNodes - 1) {
                     break;
                 }
             }
@@ -53,28 +80,10 @@ public class Kruskal {
         long endTime = System.currentTimeMillis();
 
         // Construir resultado
-        List<Oblast> pathOblasts = new ArrayList<>();
-        List<Connection> connections = new ArrayList<>();
-
-        for (Edge edge : mstEdges) {
-            Connection conn = graph.getConnection(edge.from, edge.to);
-            if (conn != null) {
-                connections.add(conn);
-            }
-
-            Oblast fromOblast = graph.getOblast(edge.from);
-            if (!pathOblasts.contains(fromOblast)) {
-                pathOblasts.add(fromOblast);
-            }
-            Oblast toOblast = graph.getOblast(edge.to);
-            if (!pathOblasts.contains(toOblast)) {
-                pathOblasts.add(toOblast);
-            }
-        }
-
         Route route = new Route.Builder()
                 .setPath(pathOblasts)
-                .setTotalDistance(totalWeight)
+                .setTotalDistance(totalDistance)
+                .setTotalCost(totalWeight)
                 .setAlgorithm("Kruskal")
                 .setComputationTime(endTime - startTime)
                 .setOptimal(true)
@@ -116,28 +125,48 @@ public class Kruskal {
         return mstGraph;
     }
 
-    private static List<Edge> getAllEdges(Graph graph) {
-        List<Edge> edges = new ArrayList<>();
-        Set<String> processed = new HashSet<>();
+    /**
+     * Arestas utilizáveis (uma por ligação em grafos não-direcionados)
+     * ordenadas por peso e, em empate, por posição. Ordena chaves long
+     * primitivas (posição do peso entre os pesos ordenados << 32 | aresta):
+     * sem boxing nem comparadores.
+     */
+    private static int[] getSortedEdges(GraphSnapshot snapshot) {
+        int[] edges = new int[snapshot.getEdgeCount()];
+        int count = 0;
+
+        for (int u = 0; u < snapshot.getNodeCount(); u++) {
+            for (int e = snapshot.firstEdge(u); e < snapshot.endEdge(u); e++) {
+                if (!snapshot.isUsable(e)) continue;
+                if (snapshot.isDirected() || u < snapshot.getTarget(e)) {
+                    edges[count++] = e;
+                }
+            }
+        }
 
-        for (Connection conn : graph.getAllConnections()) {
-            String key = conn.getFrom().getId() + "-" + conn.getTo().getId();
-            String reverseKey = conn.getTo().getId() + "-" + conn.getFrom().getId();
+        double[] sortedWeights = new double[count];
+        for (int i = 0; i < count; i++) {
+            sortedWeights[i] = snapshot.getWeight(edges[i]);
+        }
+        Arrays.sort(sortedWeights);
 
-            if (!processed.contains(key) && !processed.contains(reverseKey)) {
-                edges.add(new Edge(conn.getFrom().getId(),
-                        conn.getTo().getId(),
-                        conn.getDistance()));
-                processed.add(key);
-                processed.add(reverseKey);
-            }
+        // Pesos iguais dão a mesma posição (busca determinística)
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            long rank = Arrays.binarySearch(sortedWeights, snapshot.getWeight(edges[i]));
+            keys[i] = (rank << 32) | edges[i];
         }
+        Arrays.sort(keys);
 
-        return edges;
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = (int) keys[i];
+        }
+        return sorted;
     }
 
     // Classe auxiliar para arestas
-    static class Edge {
+    public static class Edge {
         String from;
         String to;
         double weight;
@@ -148,52 +177,65 @@ public class Kruskal {
             this.weight = weight;
         }
 
+        public String getFrom() {
+            return from;
+        }
+
+        public String getTo() {
+            return to;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
         @Override
         public String toString() {
             return String.format("%s -- %s (%.1f km)", from, to, weight);
         }
     }
 
-    // Union-Find (Disjoint Set Union)
+    // Union-Find (Disjoint Set Union) sobre índices inteiros
     static class UnionFind {
-        private final Map<String, String> parent;
-        private final Map<String, Integer> rank;
+        private final int[] parent;
+        private final int[] rank;
 
-        UnionFind(Collection<Oblast> oblasts) {
-            parent = new HashMap<>();
-            rank = new HashMap<>();
+        UnionFind(int size) {
+            parent = new int[size];
+            rank = new int[size];
 
-            for (Oblast oblast : oblasts) {
-                parent.put(oblast.getId(), oblast.getId());
-                rank.put(oblast.getId(), 0);
+            for (int i = 0; i < size; i++) {
+                parent[i] = i;
             }
         }
 
-        String find(String id) {
-            if (!parent.get(id).equals(id)) {
-                parent.put(id, find(parent.get(id))); // Path compression
+        int find(int x) {
+            while (parent[x] != x) {
+                parent[x] = parent[parent[x]]; // Path halving
+                x = parent[x];
             }
-            return parent.get(id);
+            return x;
         }
 
-        void union(String id1, String id2) {
-            String root1 = find(id1);
-            String root2 = find(id2);
+        /**
+         * Une os conjuntos; retorna false se já estavam unidos (formaria ciclo)
+         */
+        boolean union(int a, int b) {
+            int root1 = find(a);
+            int root2 = find(b);
 
-            if (root1.equals(root2)) return;
+            if (root1 == root2) return false;
 
             // Union by rank
-            int rank1 = rank.get(root1);
-            int rank2 = rank.get(root2);
-
-            if (rank1 < rank2) {
-                parent.put(root1, root2);
-            } else if (rank1 > rank2) {
-                parent.put(root2, root1);
+            if (rank[root1] < rank[root2]) {
+                parent[root1] = root2;
+            } else if (rank[root1] > rank[root2]) {
+                parent[root2] = root1;
             } else {
-                parent.put(root2, root1);
-                rank.put(root1, rank1 + 1);
+                parent[root2] = root1;
+                rank[root1]++;
             }
+            return true;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,247 @@
+package com.isctem.ukraine.algorithm;
+
+import com.isctem.ukraine.model.*;
+import java.util.*;
+
+/**
+ * Pré-processamento de landmarks para o ALT (A*, Landmarks, Triangle inequality).
+ *
+ * Para cada landmark L guarda d(L, v) e d(v, L) para todos os vértices.
+ * Pela desigualdade triangular, d(v, t) >= max(d(L, t) - d(L, v), d(v, L) - d(t, L)),
+ * o que dá um limite inferior muito mais apertado que a distância geodésica.
+ *
+ * Destruições apenas aumentam distâncias, e os limites antigos continuam
+ * admissíveis; mesmo assim, ao detetar arestas que deixaram de ser utilizáveis
+ * recalcula apenas os landmarks cuja árvore de caminhos mínimos as usava.
+ *
+ * Instâncias são imutáveis: {@link #refresh} devolve uma nova instância que
+ * partilha os arrays dos landmarks não recalculados.
+ */
+public class Landmarks {
+    private static final double EPSILON = 1e-9;
+
+    private final int[] landmarkNodes;
+    private final double[][] fromLandmark; // [k][v] = d(L, v)
+    private final double[][] toLandmark;   // [k][v] = d(v, L) (mesmo array se não-direcionado)
+
+    private final GraphSnapshot snapshot;
+    private final int recomputedLandmarks;
+
+    private Landmarks(GraphSnapshot snapshot, int[] landmarkNodes,
+                      double[][] fromLandmark, double[][] toLandmark, int recomputedLandmarks) {
+        this.snapshot = snapshot;
+        this.landmarkNodes = landmarkNodes;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+        this.recomputedLandmarks = recomputedLandmarks;
+    }
+
+    /**
+     * Seleciona até k landmarks: primeiro os Oblasts semente (ex.: hubs logísticos),
+     * depois por seleção do ponto mais distante (farthest-point) e pré-calcula
+     * as distâncias de/para cada um.
+     */
+    public static Landmarks build(GraphSnapshot snapshot, String[] seedIds, int k) {
+        int n = snapshot.getNodeCount();
+        List<Integer> chosen = new ArrayList<>();
+        List<double[]> from = new ArrayList<>();
+        List<double[]> to = new ArrayList<>();
+
+        // Distância mínima de cada vértice ao conjunto de landmarks escolhidos
+        double[] minDist = new double[n];
+        Arrays.fill(minDist, Double.POSITIVE_INFINITY);
+
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        int[] parent = new int[n];
+
+        for (String seedId : seedIds) {
+            if (chosen.size() >= k) break;
+            int seed = snapshot.indexOf(seedId);
+            if (seed >= 0 && !chosen.contains(seed)) {
+                addLandmark(snapshot, seed, chosen, from, to, minDist, heap, parent);
+            }
+        }
+
+        // Farthest-point: o próximo landmark é o vértice alcançável mais distante dos atuais
+        while (chosen.size() < k) {
+            int farthest = -1;
+            double farthestDist = -1;
+            for (int v = 0; v < n; v++) {
+                if (!snapshot.hasNode(v) || chosen.contains(v)) continue;
+                double d = minDist[v];
+                if (chosen.isEmpty()) {
+                    d = 0; // Sem sementes: começa no primeiro vértice existente
+                }
+                if (d != Double.POSITIVE_INFINITY && d > farthestDist) {
+                    farthestDist = d;
+                    farthest = v;
+                }
+            }
+            if (farthest == -1) break;
+            addLandmark(snapshot, farthest, chosen, from, to, minDist, heap, parent);
+        }
+
+        int[] nodes = chosen.stream().mapToInt(Integer::intValue).toArray();
+        return new Landmarks(snapshot, nodes,
+                from.toArray(new double[0][]), to.toArray(new double[0][]), 0);
+    }
+
+    private static void addLandmark(GraphSnapshot snapshot, int landmark, List<Integer> chosen,
+                                    List<double[]> from, List<double[]> to, double[] minDist,
+                                    IndexedMinHeap heap, int[] parent) {
+        double[] fromDist = new double[snapshot.getNodeCount()];
+        Dijkstra.search(snapshot, landmark, -1, fromDist, parent, heap, new int[2]);
+
+        double[] toDist = fromDist;
+        if (snapshot.isDirected()) {
+            toDist = new double[snapshot.getNodeCount()];
+            Dijkstra.search(snapshot.reversed(), landmark, -1, toDist, parent, heap, new int[2]);
+        }
+
+        chosen.add(landmark);
+        from.add(fromDist);
+        to.add(toDist);
+        for (int v = 0; v < minDist.length; v++) {
+            minDist[v] = Math.min(minDist[v], fromDist[v]);
+        }
+    }
+
+    /**
+     * Sincroniza o pré-processamento com a fotografia atual do grafo.
+     * Se apenas houve pioras (arestas destruídas / mais pesadas), recalcula
+     * somente os landmarks afetados; melhorias obrigam a recalcular todos.
+     * Esta instância não é alterada. Retorna null se a estrutura mudou e o
+     * chamador deve reconstruir o índice com {@link #build}.
+     */
+    public Landmarks refresh(GraphSnapshot current) {
+        if (current == snapshot) return this;
+
+        GraphSnapshot previous = snapshot;
+        if (current.getNodeCount() != previous.getNodeCount()
+                || current.getEdgeCount() != previous.getEdgeCount()) {
+            return null;
+        }
+
+        boolean[] dirty = new boolean[landmarkNodes.length];
+        for (int u = 0; u < current.getNodeCount(); u++) {
+            if (current.firstEdge(u) != previous.firstEdge(u)) return null;
+
+            for (int e = current.firstEdge(u); e < current.endEdge(u); e++) {
+                int v = current.getTarget(e);
+                if (v != previous.getTarget(e)) return null;
+
+                boolean wasUsable = previous.isUsable(e);
+                boolean isUsable = current.isUsable(e);
+                double oldWeight = previous.getWeight(e);
+
+                // Melhoria: distâncias podem diminuir e os limites deixariam de ser admissíveis
+                if ((!wasUsable && isUsable)
+                        || (isUsable && current.getWeight(e) < oldWeight)) {
+                    Arrays.fill(dirty, true);
+                    return recompute(current, dirty);
+                }
+
+                // Piora: afeta apenas landmarks cuja árvore usa a aresta (aresta "tensa")
+                if (wasUsable && (!isUsable || current.getWeight(e) > oldWeight)) {
+                    markTightLandmarks(u, v, oldWeight, dirty);
+                }
+            }
+        }
+
+        return recompute(current, dirty);
+    }
+
+    private void markTightLandmarks(int u, int v, double weight, boolean[] dirty) {
+        for (int i = 0; i < landmarkNodes.length; i++) {
+            if (dirty[i]) continue;
+            if (isTight(fromLandmark[i][u], weight, fromLandmark[i][v])
+                    || isTight(toLandmark[i][v], weight, toLandmark[i][u])) {
+                dirty[i] = true;
+            }
+        }
+    }
+
+    private static boolean isTight(double before, double weight, double after) {
+        if (before == Double.POSITIVE_INFINITY) return false;
+        return Math.abs(before + weight - after) <= EPSILON * Math.max(1.0, after);
+    }
+
+    /**
+     * Nova instância para a fotografia current: landmarks marcados recebem
+     * arrays novos, os restantes partilham os desta instância
+     */
+    private Landmarks recompute(GraphSnapshot current, boolean[] dirty) {
+        int n = current.getNodeCount();
+        double[][] from = fromLandmark.clone();
+        double[][] to = toLandmark.clone();
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        int[] parent = new int[n];
+        int recomputed = recomputedLandmarks;
+
+        for (int i = 0; i < landmarkNodes.length; i++) {
+            if (!dirty[i]) continue;
+
+            int landmark = landmarkNodes[i];
+            from[i] = new double[n];
+            Dijkstra.search(current, landmark, -1, from[i], parent, heap, new int[2]);
+            if (current.isDirected()) {
+                to[i] = new double[n];
+                Dijkstra.search(current.reversed(), landmark, -1, to[i], parent, heap, new int[2]);
+            } else {
+                to[i] = from[i];
+            }
+            recomputed++;
+        }
+
+        return new Landmarks(current, landmarkNodes, from, to, recomputed);
+    }
+
+    /**
+     * Limite inferior de d(v, target) pela desigualdade triangular
+     */
+    public double lowerBound(int v, int target) {
+        double best = 0;
+        for (int i = 0; i < landmarkNodes.length; i++) {
+            double[] from = fromLandmark[i];
+            double[] to = toLandmark[i];
+
+            // d(L, t) - d(L, v)
+            if (from[v] != Double.POSITIVE_INFINITY && from[target] != Double.POSITIVE_INFINITY) {
+                best = Math.max(best, from[target] - from[v]);
+            }
+            // d(v, L) - d(t, L)
+            if (to[v] != Double.POSITIVE_INFINITY && to[target] != Double.POSITIVE_INFINITY) {
+                best = Math.max(best, to[v] - to[target]);
+            }
+        }
+        return best;
+    }
+
+    // ========== GETTERS ==========
+
+    public GraphSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getLandmarkCount() {
+        return landmarkNodes.length;
+    }
+
+    /**
+     * IDs dos Oblasts escolhidos como landmarks
+     */
+    public List<String> getLandmarkIds() {
+        List<String> ids = new ArrayList<>();
+        for (int node : landmarkNodes) {
+            ids.add(snapshot.getId(node));
+        }
+        return ids;
+    }
+
+    /**
+     * Total de landmarks recalculados por refresh desde a construção
+     */
+    public int getRecomputedLandmarks() {
+        return recomputedLandmarks;
+    }
+}
@@ -0,0 +1,222 @@
+package com.isctem.ukraine.algorithm;
+
+import com.isctem.ukraine.model.*;
+import java.util.*;
+
+/**
+ * Busca multicritério (label-setting de Martins) sobre três objetivos:
+ * - distância total (minimizar);
+ * - Oblasts da frente de batalha atravessados (minimizar);
+ * - menor nível de abastecimento ao longo da rota (maximizar).
+ *
+ * Cada vértice guarda um conjunto de rótulos não dominados. Os rótulos saem
+ * do heap por ordem lexicográfica, pelo que cada rótulo retirado é
+ * definitivo e cada rótulo que chega ao destino pertence à frente de Pareto.
+ * Rótulos dominados por um já existente no vértice ou no destino são
+ * descartados. O número de rótulos por vértice é limitado: acima do limite
+ * novos rótulos só entram se dominarem algum existente, o que mantém a
+ * busca rápida à custa de poder omitir compromissos muito próximos.
+ */
+public class ParetoRouteSearch {
+
+    // Limite padrão de rótulos não dominados por vértice
+    public static final int DEFAULT_MAX_LABELS_PER_NODE = 32;
+
+    /**
+     * Rota da frente de Pareto com os valores dos três critérios
+     */
+    public record ParetoRoute(Route route, int frontlineCrossed, int minSupplyLevel) {}
+
+    private static final class Label {
+        final int node;
+        final double distance;
+        final int frontline;
+        final int minSupply;
+        final Label previous;
+        boolean dominated;
+
+        Label(int node, double distance, int frontline, int minSupply, Label previous) {
+            this.node = node;
+            this.distance = distance;
+            this.frontline = frontline;
+            this.minSupply = minSupply;
+            this.previous = previous;
+        }
+
+        /**
+         * Pelo menos tão bom em todos os critérios (iguais contam como dominados)
+         */
+        boolean dominates(Label other) {
+            return distance <= other.distance
+                    && frontline <= other.frontline
+                    && minSupply >= other.minSupply;
+        }
+    }
+
+    private static final Comparator<Label> LEXICOGRAPHIC = Comparator
+            .comparingDouble((Label l) -> l.distance)
+            .thenComparingInt(l -> l.frontline)
+            .thenComparingInt(l -> -l.minSupply);
+
+    public static AlgorithmResult execute(Graph graph, String startId, String endId) {
+        return execute(graph.getSnapshot(), startId, endId, DEFAULT_MAX_LABELS_PER_NODE);
+    }
+
+    /**
+     * Calcula a frente de Pareto entre dois Oblasts. A rota principal é a
+     * mais curta; as restantes rotas da frente ficam em alternativeRoutes e
+     * os valores dos critérios no metadado "pareto_front".
+     */
+    public static AlgorithmResult execute(GraphSnapshot snapshot, String startId, String endId,
+                                          int maxLabelsPerNode) {
+        long startTime = System.currentTimeMillis();
+
+        AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
+                .setAlgorithmName("Pareto (distância / frente / abastecimento)");
+
+        int startIdx = snapshot.indexOf(startId);
+        int endIdx = snapshot.indexOf(endId);
+
+        if (startIdx < 0 || endIdx < 0) {
+            return resultBuilder.setError("Oblast não encontrado").build();
+        }
+
+        // Critérios por vértice lidos uma vez (fora do ciclo principal)
+        int n = snapshot.getNodeCount();
+        int[] frontline = new int[n];
+        int[] supply = new int[n];
+        for (int v = 0; v < n; v++) {
+            if (snapshot.hasNode(v)) {
+                frontline[v] = snapshot.isFrontline(v) ? 1 : 0;
+                supply[v] = snapshot.getSupplyLevel(v);
+            }
+        }
+
+        List<List<Label>> labels = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            labels.add(new ArrayList<>());
+        }
+        PriorityQueue<Label> queue = new PriorityQueue<>(LEXICOGRAPHIC);
+        List<Label> front = new ArrayList<>();
+
+        Label start = new Label(startIdx, 0.0, frontline[startIdx], supply[startIdx], null);
+        labels.get(startIdx).add(start);
+        queue.add(start);
+
+        int nodesVisited = 0;
+        int edgesExplored = 0;
+        int labelsCreated = 1;
+        int labelsPruned = 0;
+
+        while (!queue.isEmpty()) {
+            Label current = queue.poll();
+            if (current.dominated) continue;
+            nodesVisited++;
+
+            if (current.node == endIdx) {
+                front.add(current);
+                continue;
+            }
+
+            for (int e = snapshot.firstEdge(current.node); e < snapshot.endEdge(current.node); e++) {
+                if (!snapshot.isUsable(e)) continue;
+                edgesExplored++;
+
+                int neighbor = snapshot.getTarget(e);
+                Label candidate = new Label(neighbor,
+                        current.distance + snapshot.getWeight(e),
+                        current.frontline + frontline[neighbor],
+                        Math.min(current.minSupply, supply[neighbor]),
+                        current);
+
+                if (isDominated(candidate, front)
+                        || !insert(candidate, labels.get(neighbor), maxLabelsPerNode)) {
+                    labelsPruned++;
+                    continue;
+                }
+                labelsCreated++;
+                queue.add(candidate);
+            }
+        }
+
+        long endTime = System.currentTimeMillis();
+
+        if (front.isEmpty()) {
+            return resultBuilder
+                    .setError("Não existe caminho entre os Oblasts")
+                    .setExecutionTime(endTime - startTime)
+                    .setNodesVisited(nodesVisited)
+                    .setEdgesExplored(edgesExplored)
+                    .build();
+        }
+
+        List<ParetoRoute> paretoFront = new ArrayList<>();
+        for (Label label : front) {
+            List<Oblast> path = buildPath(snapshot, label);
+            Route route = new Route.Builder()
+                    .setPath(path)
+                    .setTotalDistance(snapshot.pathDistance(path))
+                    .setTotalCost(label.distance)
+                    .setAlgorithm("Pareto")
+                    .setComputationTime(endTime - startTime)
+                    .setOptimal(true)
+                    .build();
+            paretoFront.add(new ParetoRoute(route, label.frontline, label.minSupply));
+        }
+
+        resultBuilder.setMainRoute(paretoFront.get(0).route());
+        for (int i = 1; i < paretoFront.size(); i++) {
+            resultBuilder.addAlternativeRoute(paretoFront.get(i).route());
+        }
+
+        return resultBuilder
+                .setExecutionTime(endTime - startTime)
+                .setNodesVisited(nodesVisited)
+                .setEdgesExplored(edgesExplored)
+                .addMetadata("pareto_front", paretoFront)
+                .addMetadata("labels_created", labelsCreated)
+                .addMetadata("labels_pruned", labelsPruned)
+                .build();
+    }
+
+    private static boolean isDominated(Label candidate, List<Label> labels) {
+        for (Label label : labels) {
+            if (label.dominates(candidate)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Insere o rótulo no conjunto do vértice se não for dominado, marcando
+     * e removendo os que ele domina. Conjunto cheio: só entra se dominar algum.
+     */
+    private static boolean insert(Label candidate, List<Label> nodeLabels, int maxLabels) {
+        if (isDominated(candidate, nodeLabels)) {
+            return false;
+        }
+
+        int before = nodeLabels.size();
+        nodeLabels.removeIf(label -> {
+            if (candidate.dominates(label)) {
+                label.dominated = true;
+                return true;
+            }
+            return false;
+        });
+
+        if (nodeLabels.size() == before && before >= maxLabels) {
+            return false;
+        }
+        nodeLabels.add(candidate);
+        return true;
+    }
+
+    private static List<Oblast> buildPath(GraphSnapshot snapshot, Label label) {
+        List<Oblast> path = new ArrayList<>();
+        for (Label l = label; l != null; l = l.previous) {
+            path.add(snapshot.getOblast(l.node));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
@@ -5,7 +5,9 @@ import java.util.*;
 
 /**
  * Implementação do algoritmo de Prim
- * Encontra a Árvore Geradora Mínima crescendo a partir de um vértice
+ * Encontra a Árvore Geradora Mínima crescendo a partir de um vértice.
+ * Heap indexado por vértice (key[v] = aresta mais leve que liga v à árvore,
+ * parentEdge[v] = essa aresta): O(E log V) sem alocar por aresta.
  */
 public class Prim {
 
@@ -13,77 +15,92 @@ public class Prim {
      * Executa Prim começando de um Oblast específico
      */
     public static AlgorithmResult execute(Graph graph, String startId) {
+        return execute(graph.getSnapshot(), startId);
+    }
+
+    /**
+     * Executa Prim diretamente sobre a fotografia CSR do grafo
+     */
+    public static AlgorithmResult execute(GraphSnapshot snapshot, String startId) {
         long startTime = System.currentTimeMillis();
 
         AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
                 .setAlgorithmName("Prim (MST)");
 
-        Oblast start = graph.getOblast(startId);
-        if (start == null) {
+        int startIdx = snapshot.indexOf(startId);
+        if (startIdx < 0) {
             return resultBuilder.setError("Oblast inicial não encontrado").build();
         }
 
-        Set<String> inMST = new HashSet<>();
+        int n = snapshot.getNodeCount();
+        int existingNodes = 0;
+        for (int i = 0; i < n; i++) {
+            if (snapshot.hasNode(i)) existingNodes++;
+        }
+
+        boolean[] inMST = new boolean[n];
+        double[] key = new double[n];
+        int[] parentEdge = new int[n];
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+        Arrays.fill(parentEdge, -1);
+
+        int mstSize = 0;
         List<Edge> mstEdges = new ArrayList<>();
+        List<Oblast> pathOblasts = new ArrayList<>();
         double totalWeight = 0;
-
-        // Priority Queue para arestas (peso, from, to)
-        PriorityQueue<EdgeWithWeight> pq = new PriorityQueue<>(
-                Comparator.comparingDouble(e -> e.weight));
+        double totalDistance = 0;
 
         int nodesVisited = 0;
         int edgesExplored = 0;
 
         // Começar do vértice inicial
-        inMST.add(startId);
-        nodesVisited++;
-        addEdgesToQueue(graph, startId, pq, inMST);
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        key[startIdx] = 0;
+        heap.insertOrDecrease(startIdx, 0);
 
         // Algoritmo de Prim
-        while (!pq.isEmpty() && inMST.size() < graph.getNodeCount()) {
-            EdgeWithWeight edge = pq.poll();
-            edgesExplored++;
-
-            // Se o destino já está na MST, pular
-            if (inMST.contains(edge.to)) {
-                continue;
-            }
-
-            // Adicionar aresta à MST
-            mstEdges.add(new Edge(edge.from, edge.to, edge.weight));
-            totalWeight += edge.weight;
-            inMST.add(edge.to);
+        while (!heap.isEmpty() && mstSize < existingNodes) {
+            int u = heap.poll();
+            inMST[u] = true;
+            mstSize++;
             nodesVisited++;
+            Cancellation.checkpoint(nodesVisited);
+
+            // Adicionar a aresta que ligou u à MST
+            int edge = parentEdge[u];
+            if (edge >= 0) {
+                int from = snapshot.sourceOf(edge);
+                if (pathOblasts.isEmpty()) {
+                    pathOblasts.add(snapshot.getOblast(startIdx));
+                }
+                mstEdges.add(new Edge(snapshot.getId(from), snapshot.getId(u), key[u]));
+                pathOblasts.add(snapshot.getOblast(u));
+                totalWeight += key[u];
+                totalDistance += snapshot.getConnection(edge).getDistance();
+            }
 
-            // Adicionar novas arestas do vértice recém-adicionado
-            addEdgesToQueue(graph, edge.to, pq, inMST);
+            // Relaxar as arestas de u para vértices fora da MST
+            for (int e = snapshot.firstEdge(u); e < snapshot.endEdge(u); e++) {
+                if (!snapshot.isUsable(e)) continue;
+                edgesExplored++;
+
+                int v = snapshot.getTarget(e);
+                double weight = snapshot.getWeight(e);
+                if (!inMST[v] && weight < key[v]) {
+                    key[v] = weight;
+                    parentEdge[v] = e;
+                    heap.insertOrDecrease(v, weight);
+                }
+            }
         }
 
         long endTime = System.currentTimeMillis();
 
         // Construir resultado
-        List<Oblast> pathOblasts = new ArrayList<>();
-        List<Connection> connections = new ArrayList<>();
-
-        for (Edge edge : mstEdges) {
-            Connection conn = graph.getConnection(edge.from, edge.to);
-            if (conn != null) {
-                connections.add(conn);
-            }
-
-            Oblast fromOblast = graph.getOblast(edge.from);
-            if (!pathOblasts.contains(fromOblast)) {
-                pathOblasts.add(fromOblast);
-            }
-            Oblast toOblast = graph.getOblast(edge.to);
-            if (!pathOblasts.contains(toOblast)) {
-                pathOblasts.add(toOblast);
-            }
-        }
-
         Route route = new Route.Builder()
                 .setPath(pathOblasts)
-                .setTotalDistance(totalWeight)
+                .setTotalDistance(totalDistance)
+                .setTotalCost(totalWeight)
                 .setAlgorithm("Prim")
                 .setComputationTime(endTime - startTime)
                 .setOptimal(true)
@@ -134,21 +151,8 @@ public class Prim {
         return mstGraph;
     }
 
-    private static void addEdgesToQueue(Graph graph, String fromId,
-                                        PriorityQueue<EdgeWithWeight> pq,
-                                        Set<String> inMST) {
-        for (Oblast neighbor : graph.getNeighbors(fromId)) {
-            String toId = neighbor.getId();
-
-            if (!inMST.contains(toId)) {
-                double weight = graph.getDistance(fromId, toId);
-                pq.offer(new EdgeWithWeight(fromId, toId, weight));
-            }
-        }
-    }
-
     // Classes auxiliares
-    static class Edge {
+    public static class Edge {
         String from;
         String to;
         double weight;
@@ -159,21 +163,21 @@ public class Prim {
             this.weight = weight;
         }
 
-        @Override
-        public String toString() {
-            return String.format("%s -- %s (%.1f km)", from, to, weight);
+        public String getFrom() {
+            return from;
         }
-    }
 
-    static class EdgeWithWeight {
-        String from;
-        String to;
-        double weight;
+        public String getTo() {
+            return to;
+        }
 
-        EdgeWithWeight(String from, String to, double weight) {
-            this.from = from;
-            this.to = to;
-            this.weight = weight;
+        public double getWeight() {
+            return weight;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s -- %s (%.1f km)", from, to, weight);
         }
     }
 }
\ No newline at end of file
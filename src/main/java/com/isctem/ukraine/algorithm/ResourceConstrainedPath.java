@@ -0,0 +1,230 @@
+package com.isctem.ukraine.algorithm;
+
+import com.isctem.ukraine.model.*;
+import java.util.*;
+
+/**
+ * Caminho mínimo com restrição de recursos (alcance de combustível e saltos)
+ *
+ * Um comboio reabastece nos Oblasts com supplyLevel >= limiar e não pode
+ * percorrer mais do que maxSegmentKm entre dois reabastecimentos (a origem
+ * conta como tanque cheio). Opcionalmente limita o número de saltos.
+ *
+ * Busca por rótulos (distância, combustível gasto, saltos) com:
+ * - dominância: rótulos piores em todos os recursos no mesmo vértice são descartados;
+ * - limites: distância restante e saltos restantes calculados a partir do
+ *   destino no grafo sem restrições; rótulos que não podem melhorar a melhor
+ *   solução conhecida ou cumprir o limite de saltos são descartados.
+ * Os rótulos saem por distância + limite inferior, pelo que o primeiro a
+ * chegar ao destino é ótimo. A rota pode repetir Oblasts (desvio para reabastecer).
+ */
+public class ResourceConstrainedPath {
+
+    /**
+     * Restrições do comboio (maxHops = 0: sem limite de saltos)
+     */
+    public record Constraints(double maxSegmentKm, int refuelSupplyLevel, int maxHops) {}
+
+    private static final class Label {
+        final int node;
+        final double distance;
+        final double fuel;      // km desde o último reabastecimento
+        final int hops;
+        final Label previous;
+        boolean dominated;
+
+        Label(int node, double distance, double fuel, int hops, Label previous) {
+            this.node = node;
+            this.distance = distance;
+            this.fuel = fuel;
+            this.hops = hops;
+            this.previous = previous;
+        }
+    }
+
+    public static AlgorithmResult execute(Graph graph, String startId, String endId, Constraints constraints) {
+        return execute(graph.getSnapshot(), startId, endId, constraints);
+    }
+
+    public static AlgorithmResult execute(GraphSnapshot snapshot, String startId, String endId,
+                                          Constraints constraints) {
+        long startTime = System.currentTimeMillis();
+
+        AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
+                .setAlgorithmName("Caminho com Restrição de Recursos");
+
+        int startIdx = snapshot.indexOf(startId);
+        int endIdx = snapshot.indexOf(endId);
+
+        if (startIdx < 0 || endIdx < 0) {
+            return resultBuilder.setError("Oblast não encontrado").build();
+        }
+
+        int n = snapshot.getNodeCount();
+        boolean limitHops = constraints.maxHops() > 0;
+        int[] counters = {0, 0}; // [nodesVisited, edgesExplored]
+
+        // Limites inferiores a partir do destino (grafo sem restrições)
+        double[] remaining = new double[n];
+        Dijkstra.search(snapshot.reversed(), endIdx, -1, remaining, new int[n], new IndexedMinHeap(n), new int[2]);
+        int[] remainingHops = limitHops ? hopsTo(snapshot.reversed(), endIdx) : null;
+
+        // Recursos por aresta/vértice em arrays primitivos
+        double[] segment = new double[snapshot.getEdgeCount()];
+        for (int e = 0; e < segment.length; e++) {
+            segment[e] = snapshot.getConnection(e).getDistance();
+        }
+        boolean[] refuel = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            refuel[v] = snapshot.hasNode(v)
+                    && snapshot.getSupplyLevel(v) >= constraints.refuelSupplyLevel();
+        }
+
+        List<List<Label>> labels = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            labels.add(new ArrayList<>());
+        }
+        PriorityQueue<Label> queue = new PriorityQueue<>(
+                Comparator.comparingDouble((Label l) -> l.distance + remaining[l.node]));
+
+        Label start = new Label(startIdx, 0.0, 0.0, 0, null);
+        if (remaining[startIdx] != Double.POSITIVE_INFINITY) {
+            labels.get(startIdx).add(start);
+            queue.add(start);
+        }
+
+        double upperBound = Double.POSITIVE_INFINITY;
+        int labelsCreated = queue.size();
+        Label best = null;
+
+        while (!queue.isEmpty()) {
+            Label current = queue.poll();
+            if (current.dominated) continue;
+            counters[0]++;
+            Cancellation.checkpoint(counters[0]);
+
+            if (current.node == endIdx) {
+                best = current;
+                break;
+            }
+
+            for (int e = snapshot.firstEdge(current.node); e < snapshot.endEdge(current.node); e++) {
+                if (!snapshot.isUsable(e)) continue;
+                counters[1]++;
+
+                int neighbor = snapshot.getTarget(e);
+                double fuel = current.fuel + segment[e];
+                double distance = current.distance + snapshot.getWeight(e);
+                int hops = current.hops + 1;
+
+                // Restrições e limites
+                if (fuel > constraints.maxSegmentKm()) continue;
+                if (distance + remaining[neighbor] >= upperBound) continue;
+                if (limitHops && hops + remainingHops[neighbor] > constraints.maxHops()) continue;
+
+                Label candidate = new Label(neighbor, distance, refuel[neighbor] ? 0.0 : fuel, hops, current);
+                if (!insert(candidate, labels.get(neighbor), limitHops)) continue;
+
+                labelsCreated++;
+                if (neighbor == endIdx) {
+                    upperBound = Math.min(upperBound, distance);
+                }
+                queue.add(candidate);
+            }
+        }
+
+        long endTime = System.currentTimeMillis();
+
+        if (best == null) {
+            return resultBuilder
+                    .setError("Não existe rota que respeite as restrições")
+                    .setExecutionTime(endTime - startTime)
+                    .setNodesVisited(counters[0])
+                    .setEdgesExplored(counters[1])
+                    .addMetadata("labels_created", labelsCreated)
+                    .build();
+        }
+
+        List<Oblast> path = new ArrayList<>();
+        List<String> refuelStops = new ArrayList<>();
+        for (Label l = best; l != null; l = l.previous) {
+            path.add(snapshot.getOblast(l.node));
+            if (l.previous != null && l != best && refuel[l.node]) {
+                refuelStops.add(snapshot.getId(l.node));
+            }
+        }
+        Collections.reverse(path);
+        Collections.reverse(refuelStops);
+
+        Route route = new Route.Builder()
+                .setPath(path)
+                .setTotalDistance(snapshot.pathDistance(path))
+                .setTotalCost(best.distance)
+                .setAlgorithm("Resource Constrained")
+                .setComputationTime(endTime - startTime)
+                .setOptimal(true)
+                .build();
+
+        return resultBuilder
+                .setMainRoute(route)
+                .setExecutionTime(endTime - startTime)
+                .setNodesVisited(counters[0])
+                .setEdgesExplored(counters[1])
+                .addMetadata("refuel_stops", refuelStops)
+                .addMetadata("hops", best.hops)
+                .addMetadata("labels_created", labelsCreated)
+                .build();
+    }
+
+    /**
+     * Insere o rótulo se nenhum rótulo do vértice o dominar, removendo os
+     * que ele domina (saltos só contam quando há limite de saltos)
+     */
+    private static boolean insert(Label candidate, List<Label> nodeLabels, boolean compareHops) {
+        for (Label label : nodeLabels) {
+            if (dominates(label, candidate, compareHops)) return false;
+        }
+        nodeLabels.removeIf(label -> {
+            if (dominates(candidate, label, compareHops)) {
+                label.dominated = true;
+                return true;
+            }
+            return false;
+        });
+        nodeLabels.add(candidate);
+        return true;
+    }
+
+    private static boolean dominates(Label a, Label b, boolean compareHops) {
+        return a.distance <= b.distance
+                && a.fuel <= b.fuel
+                && (!compareHops || a.hops <= b.hops);
+    }
+
+    /**
+     * Número mínimo de saltos de cada vértice até o destino (BFS no transposto)
+     */
+    private static int[] hopsTo(GraphSnapshot reversed, int target) {
+        int n = reversed.getNodeCount();
+        int[] hops = new int[n];
+        Arrays.fill(hops, Integer.MAX_VALUE / 2);
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        hops[target] = 0;
+        queue[tail++] = target;
+
+        while (head < tail) {
+            int v = queue[head++];
+            for (int e = reversed.firstEdge(v); e < reversed.endEdge(v); e++) {
+                if (!reversed.isUsable(e)) continue;
+                int u = reversed.getTarget(e);
+                if (hops[u] > hops[v] + 1) {
+                    hops[u] = hops[v] + 1;
+                    queue[tail++] = u;
+                }
+            }
+        }
+        return hops;
+    }
+}
@@ -0,0 +1,150 @@
+package com.isctem.ukraine.algorithm;
+
+import com.isctem.ukraine.model.*;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Distâncias mínimas entre as paragens de um tour (matriz k x k).
+ *
+ * Calculada de uma de duas formas: {@link #compute} faz um Dijkstra por
+ * paragem, em paralelo no ForkJoinPool comum (custo O(k (V + E) log V),
+ * memória O(k V)) e guarda as árvores de pais para expandir as pernas do
+ * tour; {@link #fromTable} só lê O(k²) entradas de uma tabela de todos os
+ * pares já sincronizada. A paragem 0 é a origem; as restantes são
+ * distintas e diferentes da origem. Instâncias são imutáveis.
+ */
+public final class StopDistanceMatrix {
+    private final GraphSnapshot snapshot;
+    private final List<String> stopIds;
+    private final int[] stops;          // índice de cada paragem na fotografia (-1 se não existe)
+    private final double[][] distances; // [i][j] = d(paragem i, paragem j)
+    private final int[][] parents;      // [i] = árvore de pais do Dijkstra da paragem i (sem tabela)
+    private final AllPairsShortestPaths table; // tabela de origem (null se calculada por paragem)
+
+    private StopDistanceMatrix(GraphSnapshot snapshot, List<String> stopIds, int[] stops,
+                               double[][] distances, int[][] parents, AllPairsShortestPaths table) {
+        this.snapshot = snapshot;
+        this.stopIds = stopIds;
+        this.stops = stops;
+        this.distances = distances;
+        this.parents = parents;
+        this.table = table;
+    }
+
+    /**
+     * Calcula a matriz para a origem startId e as paragens indicadas
+     * (repetidas e a própria origem são ignoradas)
+     */
+    public static StopDistanceMatrix compute(GraphSnapshot snapshot, String startId, Collection<String> stopIds) {
+        List<String> ids = distinctStops(startId, stopIds);
+        int k = ids.size();
+        int n = snapshot.getNodeCount();
+        int[] stops = indexStops(snapshot, ids);
+
+        double[][] distances = new double[k][k];
+        int[][] parents = new int[k][];
+        IntStream.range(0, k).parallel().forEach(i -> {
+            Arrays.fill(distances[i], Double.POSITIVE_INFINITY);
+            if (stops[i] < 0) return;
+
+            double[] dist = new double[n];
+            int[] parent = new int[n];
+            Dijkstra.search(snapshot, stops[i], -1, dist, parent, new IndexedMinHeap(n), new int[2]);
+
+            for (int j = 0; j < k; j++) {
+                if (stops[j] >= 0) {
+                    distances[i][j] = dist[stops[j]];
+                }
+            }
+            parents[i] = parent;
+        });
+
+        return new StopDistanceMatrix(snapshot, ids, stops, distances, parents, null);
+    }
+
+    /**
+     * Matriz lida de uma tabela de todos os pares (mesmas regras de
+     * {@link #compute}); os caminhos seguem os próximos saltos da tabela
+     */
+    public static StopDistanceMatrix fromTable(AllPairsShortestPaths table, String startId, Collection<String> stopIds) {
+        GraphSnapshot snapshot = table.getSnapshot();
+        List<String> ids = distinctStops(startId, stopIds);
+        int k = ids.size();
+        int[] stops = indexStops(snapshot, ids);
+
+        double[][] distances = new double[k][k];
+        for (int i = 0; i < k; i++) {
+            Arrays.fill(distances[i], Double.POSITIVE_INFINITY);
+            if (stops[i] < 0) continue;
+            for (int j = 0; j < k; j++) {
+                if (stops[j] >= 0) {
+                    distances[i][j] = table.getDistance(stops[i], stops[j]);
+                }
+            }
+        }
+
+        return new StopDistanceMatrix(snapshot, ids, stops, distances, null, table);
+    }
+
+    private static List<String> distinctStops(String startId, Collection<String> stopIds) {
+        Set<String> distinct = new LinkedHashSet<>();
+        distinct.add(startId);
+        distinct.addAll(stopIds);
+        return List.copyOf(distinct);
+    }
+
+    private static int[] indexStops(GraphSnapshot snapshot, List<String> ids) {
+        int[] stops = new int[ids.size()];
+        for (int i = 0; i < stops.length; i++) {
+            stops[i] = snapshot.indexOf(ids.get(i));
+        }
+        return stops;
+    }
+
+    // ========== CONSULTAS ==========
+
+    /**
+     * Número de paragens, incluindo a origem
+     */
+    public int size() {
+        return stops.length;
+    }
+
+    public String getStopId(int stop) {
+        return stopIds.get(stop);
+    }
+
+    /**
+     * true se a paragem existe na fotografia
+     */
+    public boolean isKnown(int stop) {
+        return stops[stop] >= 0;
+    }
+
+    /**
+     * Distância mínima entre duas paragens (infinito se inalcançável ou inexistente)
+     */
+    public double getDistance(int from, int to) {
+        return distances[from][to];
+    }
+
+    /**
+     * Caminho mínimo completo entre duas paragens (vazio se inalcançável)
+     */
+    public List<Oblast> getPath(int from, int to) {
+        if (distances[from][to] == Double.POSITIVE_INFINITY) {
+            return new ArrayList<>();
+        }
+        if (table != null) {
+            return table.getPath(stops[from], stops[to]);
+        }
+        return snapshot.buildPath(parents[from], stops[to]);
+    }
+
+    // ========== GETTERS ==========
+
+    public GraphSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,305 @@
+package com.isctem.ukraine.algorithm;
+
+import com.isctem.ukraine.model.*;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Otimizador de tours com várias paragens (TSP de caminho aberto com
+ * origem fixa) sobre a matriz de distâncias entre as paragens.
+ *
+ * - Construção por inserção mais barata;
+ * - Busca local 2-opt + Or-opt (segmentos de 1 a 3 paragens) com variação
+ *   de custo O(1) por movimento, válida também para distâncias assimétricas;
+ * - Busca local iterada (perturbação double-bridge) enquanto houver tempo:
+ *   o melhor tour encontrado está sempre disponível quando o prazo acaba.
+ */
+public class TourOptimizer {
+
+    // Comprimento máximo dos segmentos deslocados pelo Or-opt
+    private static final int OR_OPT_MAX_SEGMENT = 3;
+
+    // Perturbações sem melhoria (por paragem) antes de terminar antes do prazo
+    private static final int STALL_LIMIT_PER_STOP = 50;
+
+    // Custo de uma perna sem caminho (mantém a aritmética finita)
+    private static final double UNREACHABLE = 1e12;
+
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Ordena as paragens da matriz para minimizar a distância total a partir
+     * da paragem 0 (sem regresso). A rota principal é o tour expandido com
+     * os caminhos mínimos entre paragens; a ordem de visita fica no metadado
+     * "visit_order". Paragens inalcançáveis a partir da origem são omitidas
+     * e listadas em "unreachable_stops".
+     */
+    public static AlgorithmResult execute(StopDistanceMatrix matrix, Duration timeBudget) {
+        long startTime = System.currentTimeMillis();
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+
+        AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
+                .setAlgorithmName("Otimizador de Tour (inserção + 2-opt/Or-opt)");
+
+        if (!matrix.isKnown(0)) {
+            return resultBuilder.setError("Oblast não encontrado").build();
+        }
+
+        // Paragens (índices na matriz) alcançáveis a partir da origem
+        int[] ids = new int[matrix.size()];
+        List<String> unreachable = new ArrayList<>();
+        int m = 0;
+        ids[m++] = 0;
+        for (int stop = 1; stop < matrix.size(); stop++) {
+            if (matrix.getDistance(0, stop) == Double.POSITIVE_INFINITY) {
+                unreachable.add(matrix.getStopId(stop));
+            } else {
+                ids[m++] = stop;
+            }
+        }
+
+        double[][] d = new double[m][m];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < m; j++) {
+                double distance = matrix.getDistance(ids[i], ids[j]);
+                d[i][j] = distance == Double.POSITIVE_INFINITY ? UNREACHABLE : distance;
+            }
+        }
+
+        int[] tour = cheapestInsertion(d);
+        double initialCost = cost(tour, d);
+        int moves = localSearch(tour, d, deadline);
+
+        // Busca local iterada até ao prazo ou até estagnar
+        int[] best = tour;
+        double bestCost = cost(best, d);
+        Random random = new Random(m);
+        int perturbations = 0;
+        int stall = 0;
+        while (m >= 4 && stall < STALL_LIMIT_PER_STOP * m && System.nanoTime() < deadline) {
+            int[] candidate = doubleBridge(best, random);
+            moves += localSearch(candidate, d, deadline);
+            perturbations++;
+
+            double candidateCost = cost(candidate, d);
+            if (candidateCost < bestCost - EPSILON) {
+                best = candidate;
+                bestCost = candidateCost;
+                stall = 0;
+            } else {
+                stall++;
+            }
+        }
+
+        long endTime = System.currentTimeMillis();
+
+        if (bestCost >= UNREACHABLE) {
+            return resultBuilder
+                    .setError("Não existe rota que ligue todas as paragens")
+                    .setExecutionTime(endTime - startTime)
+                    .build();
+        }
+
+        List<String> visitOrder = new ArrayList<>(m);
+        for (int stop : best) {
+            visitOrder.add(matrix.getStopId(ids[stop]));
+        }
+
+        List<Oblast> path = new ArrayList<>(matrix.getPath(0, 0));
+        double totalDistance = 0;
+        for (int i = 0; i + 1 < m; i++) {
+            List<Oblast> segment = matrix.getPath(ids[best[i]], ids[best[i + 1]]);
+            path.addAll(segment.subList(1, segment.size()));
+            totalDistance += d[best[i]][best[i + 1]];
+        }
+
+        Route route = new Route.Builder()
+                .setPath(path)
+                .setTotalDistance(matrix.getSnapshot().pathDistance(path))
+                .setTotalCost(totalDistance)
+                .setAlgorithm("Tour Optimizer")
+                .setComputationTime(endTime - startTime)
+                .setOptimal(false)
+                .build();
+
+        return resultBuilder
+                .setMainRoute(route)
+                .setExecutionTime(endTime - startTime)
+                .addMetadata("visit_order", visitOrder)
+                .addMetadata("initial_distance", initialCost)
+                .addMetadata("local_search_moves", moves)
+                .addMetadata("perturbations", perturbations)
+                .addMetadata("unreachable_stops", unreachable)
+                .build();
+    }
+
+    // ========== CONSTRUÇÃO ==========
+
+    /**
+     * Insere, uma a uma, a paragem cuja inserção menos aumenta o caminho
+     */
+    private static int[] cheapestInsertion(double[][] d) {
+        int m = d.length;
+        int[] tour = new int[m];
+        boolean[] inTour = new boolean[m];
+        tour[0] = 0;
+        inTour[0] = true;
+
+        for (int size = 1; size < m; size++) {
+            int bestStop = -1;
+            int bestPosition = -1;
+            double bestIncrease = Double.POSITIVE_INFINITY;
+
+            for (int v = 1; v < m; v++) {
+                if (inTour[v]) continue;
+                // Inserir depois de tour[p]
+                for (int p = 0; p < size; p++) {
+                    int a = tour[p];
+                    double increase = p + 1 < size
+                            ? d[a][v] + d[v][tour[p + 1]] - d[a][tour[p + 1]]
+                            : d[a][v];
+                    if (increase < bestIncrease) {
+                        bestIncrease = increase;
+                        bestStop = v;
+                        bestPosition = p + 1;
+                    }
+                }
+            }
+
+            System.arraycopy(tour, bestPosition, tour, bestPosition + 1, size - bestPosition);
+            tour[bestPosition] = bestStop;
+            inTour[bestStop] = true;
+        }
+        return tour;
+    }
+
+    // ========== BUSCA LOCAL ==========
+
+    /**
+     * Aplica movimentos 2-opt e Or-opt que melhoram até chegar a um ótimo
+     * local ou ao prazo; devolve o número de movimentos aplicados
+     */
+    private static int localSearch(int[] tour, double[][] d, long deadline) {
+        int moves = 0;
+        while (System.nanoTime() < deadline && (twoOpt(tour, d) || orOpt(tour, d))) {
+            moves++;
+        }
+        return moves;
+    }
+
+    /**
+     * Inverte o primeiro segmento tour[i..j] que encurta o caminho. Somas
+     * prefixas dos custos nos dois sentidos dão a variação em O(1).
+     */
+    private static boolean twoOpt(int[] tour, double[][] d) {
+        int m = tour.length;
+        double[] forward = new double[m];
+        double[] backward = new double[m];
+        for (int k = 1; k < m; k++) {
+            forward[k] = forward[k - 1] + d[tour[k - 1]][tour[k]];
+            backward[k] = backward[k - 1] + d[tour[k]][tour[k - 1]];
+        }
+
+        for (int i = 1; i < m - 1; i++) {
+            for (int j = i + 1; j < m; j++) {
+                double delta = d[tour[i - 1]][tour[j]] - d[tour[i - 1]][tour[i]]
+                        + (backward[j] - backward[i]) - (forward[j] - forward[i]);
+                if (j + 1 < m) {
+                    delta += d[tour[i]][tour[j + 1]] - d[tour[j]][tour[j + 1]];
+                }
+                if (delta < -EPSILON) {
+                    reverse(tour, i, j);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Desloca o primeiro segmento de 1 a 3 paragens cuja mudança de
+     * posição (mantendo o sentido) encurta o caminho
+     */
+    private static boolean orOpt(int[] tour, double[][] d) {
+        int m = tour.length;
+        for (int length = 1; length <= OR_OPT_MAX_SEGMENT; length++) {
+            for (int i = 1; i + length <= m; i++) {
+                int first = tour[i];
+                int last = tour[i + length - 1];
+                int prev = tour[i - 1];
+                int next = i + length < m ? tour[i + length] : -1;
+
+                double removalGain = d[prev][first]
+                        + (next >= 0 ? d[last][next] - d[prev][next] : 0);
+
+                for (int p = 0; p < m; p++) {
+                    if (p >= i - 1 && p < i + length) continue;
+                    int a = tour[p];
+                    int b = p + 1 < m ? tour[p + 1] : -1;
+                    double insertionCost = d[a][first]
+                            + (b >= 0 ? d[last][b] - d[a][b] : 0);
+
+                    if (insertionCost - removalGain < -EPSILON) {
+                        moveSegment(tour, i, length, p);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Perturbação: troca dois segmentos consecutivos escolhidos ao acaso
+     * (a origem nunca sai da primeira posição)
+     */
+    private static int[] doubleBridge(int[] tour, Random random) {
+        int m = tour.length;
+        int[] cuts = {1 + random.nextInt(m - 1), 1 + random.nextInt(m - 1), 1 + random.nextInt(m)};
+        Arrays.sort(cuts);
+        int a = cuts[0];
+        int b = Math.max(cuts[1], a + 1);
+        int c = Math.max(cuts[2], b + 1);
+        if (c > m) return tour.clone();
+
+        int[] result = new int[m];
+        int k = 0;
+        for (int x = 0; x < a; x++) result[k++] = tour[x];
+        for (int x = b; x < c; x++) result[k++] = tour[x];
+        for (int x = a; x < b; x++) result[k++] = tour[x];
+        for (int x = c; x < m; x++) result[k++] = tour[x];
+        return result;
+    }
+
+    // ========== AUXILIARES ==========
+
+    private static void reverse(int[] tour, int i, int j) {
+        while (i < j) {
+            int tmp = tour[i];
+            tour[i++] = tour[j];
+            tour[j--] = tmp;
+        }
+    }
+
+    /**
+     * Move tour[i..i+length-1] para depois de tour[p] (p fora do segmento)
+     */
+    private static void moveSegment(int[] tour, int i, int length, int p) {
+        int[] segment = Arrays.copyOfRange(tour, i, i + length);
+        if (p < i) {
+            System.arraycopy(tour, p + 1, tour, p + 1 + length, i - p - 1);
+            System.arraycopy(segment, 0, tour, p + 1, length);
+        } else {
+            System.arraycopy(tour, i + length, tour, i, p - i - length + 1);
+            System.arraycopy(segment, 0, tour, p - length + 1, length);
+        }
+    }
+
+    private static double cost(int[] tour, double[][] d) {
+        double total = 0;
+        for (int k = 1; k < tour.length; k++) {
+            total += d[tour[k - 1]][tour[k]];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,266 @@
+package com.isctem.ukraine.algorithm;
+
+import com.isctem.ukraine.model.*;
+import java.util.*;
+
+/**
+ * Implementação do algoritmo de Yen (K caminhos mais curtos sem ciclos)
+ *
+ * O caminho k+1 é o melhor desvio de um dos k já encontrados: para cada nó
+ * de desvio (spur) do último caminho, bloqueia-se o prefixo (raiz) e as
+ * arestas já usadas pelos caminhos com a mesma raiz e procura-se o resto
+ * com Dijkstra. Os candidatos ficam num heap ordenado por custo.
+ *
+ * Otimização de Lawler: só se desvia a partir do ponto em que o último
+ * caminho se desviou do seu pai (os desvios anteriores já foram gerados).
+ */
+public class YenKShortestPaths {
+
+    /**
+     * Caminho como sequência de índices, com o custo acumulado até cada nó
+     */
+    private record Path(int[] nodes, double[] costs, int deviation) {
+        double totalCost() {
+            return costs[costs.length - 1];
+        }
+    }
+
+    public static AlgorithmResult execute(Graph graph, String startId, String endId, int k) {
+        return execute(graph.getSnapshot(), startId, endId, k);
+    }
+
+    /**
+     * Calcula até k caminhos simples, por ordem de distância. O primeiro é a
+     * rota principal; os restantes ficam em alternativeRoutes.
+     */
+    public static AlgorithmResult execute(GraphSnapshot snapshot, String startId, String endId, int k) {
+        long startTime = System.currentTimeMillis();
+
+        AlgorithmResult.Builder resultBuilder = new AlgorithmResult.Builder()
+                .setAlgorithmName("Yen (K caminhos mais curtos)");
+
+        int startIdx = snapshot.indexOf(startId);
+        int endIdx = snapshot.indexOf(endId);
+
+        if (startIdx < 0 || endIdx < 0) {
+            return resultBuilder.setError("Oblast não encontrado").build();
+        }
+        if (k < 1) {
+            return resultBuilder.setError("k deve ser positivo: " + k).build();
+        }
+
+        SpurSearch search = new SpurSearch(snapshot);
+        List<Path> found = new ArrayList<>();
+
+        Path first = search.run(startIdx, endIdx, null, 0);
+        if (first != null) {
+            found.add(first);
+        }
+
+        PriorityQueue<Path> candidates = new PriorityQueue<>(
+                Comparator.comparingDouble(Path::totalCost)
+                        .thenComparingInt(p -> p.nodes().length));
+        Set<List<Integer>> seen = new HashSet<>();
+        if (first != null) {
+            seen.add(asList(first.nodes()));
+        }
+
+        while (!found.isEmpty() && found.size() < k) {
+            Path last = found.get(found.size() - 1);
+
+            for (int i = last.deviation(); i < last.nodes().length - 1; i++) {
+                search.beginSpur();
+
+                // Raiz: nós antes do spur ficam bloqueados
+                for (int j = 0; j < i; j++) {
+                    search.blockNode(last.nodes()[j]);
+                }
+                // Arestas já usadas a partir desta raiz
+                for (Path path : found) {
+                    if (path.nodes().length > i + 1 && sharesRoot(path, last, i)) {
+                        search.blockEdges(path.nodes()[i], path.nodes()[i + 1]);
+                    }
+                }
+
+                Path spur = search.run(last.nodes()[i], endIdx, last, i);
+                if (spur != null && seen.add(asList(spur.nodes()))) {
+                    candidates.add(spur);
+                }
+            }
+
+            if (candidates.isEmpty()) {
+                break;
+            }
+            found.add(candidates.poll());
+        }
+
+        long endTime = System.currentTimeMillis();
+
+        if (found.isEmpty()) {
+            return resultBuilder
+                    .setError("Não existe caminho entre os Oblasts")
+                    .setExecutionTime(endTime - startTime)
+                    .setNodesVisited(search.nodesVisited)
+                    .setEdgesExplored(search.edgesExplored)
+                    .build();
+        }
+
+        for (int p = 0; p < found.size(); p++) {
+            Route route = toRoute(snapshot, found.get(p), endTime - startTime, p == 0);
+            if (p == 0) {
+                resultBuilder.setMainRoute(route);
+            } else {
+                resultBuilder.addAlternativeRoute(route);
+            }
+        }
+
+        return resultBuilder
+                .setExecutionTime(endTime - startTime)
+                .setNodesVisited(search.nodesVisited)
+                .setEdgesExplored(search.edgesExplored)
+                .addMetadata("paths_found", found.size())
+                .build();
+    }
+
+    private static boolean sharesRoot(Path path, Path reference, int length) {
+        for (int j = 0; j <= length; j++) {
+            if (path.nodes()[j] != reference.nodes()[j]) return false;
+        }
+        return true;
+    }
+
+    private static List<Integer> asList(int[] nodes) {
+        List<Integer> list = new ArrayList<>(nodes.length);
+        for (int node : nodes) {
+            list.add(node);
+        }
+        return list;
+    }
+
+    private static Route toRoute(GraphSnapshot snapshot, Path path, long timeMs, boolean optimal) {
+        List<Oblast> oblasts = new ArrayList<>(path.nodes().length);
+        for (int node : path.nodes()) {
+            oblasts.add(snapshot.getOblast(node));
+        }
+        return new Route.Builder()
+                .setPath(oblasts)
+                .setTotalDistance(snapshot.pathDistance(oblasts))
+                .setTotalCost(path.totalCost())
+                .setAlgorithm("Yen")
+                .setComputationTime(timeMs)
+                .setOptimal(optimal)
+                .build();
+    }
+
+    // ========== BUSCA DO DESVIO ==========
+
+    /**
+     * Dijkstra reutilizável para os desvios. Bloqueios são marcados com um
+     * carimbo por desvio, sem limpar arrays entre buscas.
+     */
+    private static class SpurSearch {
+        private final GraphSnapshot snapshot;
+        private final double[] dist;
+        private final int[] parent;
+        private final int[] reached;      // carimbo da busca que alcançou o nó
+        private final int[] blockedNode;  // carimbo do desvio que bloqueou o nó
+        private final int[] blockedEdge;  // carimbo do desvio que bloqueou a aresta
+        private final IndexedMinHeap heap;
+        private int stamp;
+
+        int nodesVisited;
+        int edgesExplored;
+
+        SpurSearch(GraphSnapshot snapshot) {
+            int n = snapshot.getNodeCount();
+            this.snapshot = snapshot;
+            this.dist = new double[n];
+            this.parent = new int[n];
+            this.reached = new int[n];
+            this.blockedNode = new int[n];
+            this.blockedEdge = new int[snapshot.getEdgeCount()];
+            this.heap = new IndexedMinHeap(n);
+        }
+
+        void beginSpur() {
+            stamp++;
+        }
+
+        void blockNode(int node) {
+            blockedNode[node] = stamp;
+        }
+
+        void blockEdges(int from, int to) {
+            for (int e = snapshot.firstEdge(from); e < snapshot.endEdge(from); e++) {
+                if (snapshot.getTarget(e) == to) {
+                    blockedEdge[e] = stamp;
+                }
+            }
+        }
+
+        /**
+         * Caminho mínimo de spur até target respeitando os bloqueios, já
+         * concatenado à raiz root[0..rootLength] (root null: sem raiz)
+         */
+        Path run(int spur, int target, Path root, int rootLength) {
+            if (root == null) {
+                stamp++;
+            }
+            heap.clear();
+            dist[spur] = 0.0;
+            parent[spur] = -1;
+            reached[spur] = stamp;
+            heap.insertOrDecrease(spur, 0.0);
+
+            boolean arrived = false;
+            while (!heap.isEmpty()) {
+                int current = heap.poll();
+                nodesVisited++;
+                if (current == target) {
+                    arrived = true;
+                    break;
+                }
+
+                double currentDist = dist[current];
+                for (int e = snapshot.firstEdge(current); e < snapshot.endEdge(current); e++) {
+                    if (!snapshot.isUsable(e) || blockedEdge[e] == stamp) continue;
+                    edgesExplored++;
+
+                    int neighbor = snapshot.getTarget(e);
+                    if (blockedNode[neighbor] == stamp) continue;
+
+                    double newDist = currentDist + snapshot.getWeight(e);
+                    if (reached[neighbor] != stamp || newDist < dist[neighbor]) {
+                        reached[neighbor] = stamp;
+                        dist[neighbor] = newDist;
+                        parent[neighbor] = current;
+                        heap.insertOrDecrease(neighbor, newDist);
+                    }
+                }
+            }
+            if (!arrived) {
+                return null;
+            }
+
+            int spurLength = 0;
+            for (int v = target; v != -1; v = parent[v]) {
+                spurLength++;
+            }
+
+            int total = rootLength + spurLength;
+            int[] nodes = new int[total];
+            double[] costs = new double[total];
+            if (root != null) {
+                System.arraycopy(root.nodes(), 0, nodes, 0, rootLength);
+                System.arraycopy(root.costs(), 0, costs, 0, rootLength);
+            }
+            double rootCost = root != null ? root.costs()[rootLength] : 0.0;
+
+            for (int v = target, i = total - 1; v != -1; v = parent[v], i--) {
+                nodes[i] = v;
+                costs[i] = rootCost + dist[v];
+            }
+            return new Path(nodes, costs, rootLength);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.isctem.ukraine.data;
 
 import com.isctem.ukraine.model.Graph;
+import com.isctem.ukraine.model.GraphSnapshot;
 import com.isctem.ukraine.model.Oblast;
-import com.isctem.ukraine.model.Connection;
+
+import java.util.Arrays;
 
 /**
  * Classe responsável por carregar os dados reais da Ucrânia.
@@ -17,11 +19,14 @@ public class UkraineData {
     public static Graph createUkraineGraph() {
         Graph graph = new Graph(false); // Grafo não-direcionado
 
-        // Adicionar todos os Oblasts
-        addAllOblasts(graph);
+        // Um único lote: a fotografia é construída uma vez no fim
+        graph.batch(mutator -> {
+            // Adicionar todos os Oblasts
+            addAllOblasts(mutator);
 
-        // Adicionar todas as conexões ferroviárias
-        addAllConnections(graph);
+            // Adicionar todas as conexões ferroviárias
+            addAllConnections(mutator);
+        });
 
         return graph;
     }
@@ -29,84 +34,84 @@ public class UkraineData {
     /**
      * Adiciona todos os 25 Oblasts da Ucrânia
      */
-    private static void addAllOblasts(Graph graph) {
+    private static void addAllOblasts(Graph.Mutator mutator) {
         // REGIÃO CENTRAL
-        graph.addOblast(new Oblast("kyiv", "Kyiv", 50.4501, 30.5234,
+        mutator.addOblast(new Oblast("kyiv", "Kyiv", 50.4501, 30.5234,
                 false, 2952301, "Central"));
 
-        graph.addOblast(new Oblast("cherkasy", "Cherkasy", 49.4285, 32.0617,
+        mutator.addOblast(new Oblast("cherkasy", "Cherkasy", 49.4285, 32.0617,
                 false, 1192137, "Central"));
 
-        graph.addOblast(new Oblast("chernihiv", "Chernihiv", 51.4982, 31.2893,
+        mutator.addOblast(new Oblast("chernihiv", "Chernihiv", 51.4982, 31.2893,
                 false, 959315, "Northern"));
 
-        graph.addOblast(new Oblast("zhytomyr", "Zhytomyr", 50.2547, 28.6587,
+        mutator.addOblast(new Oblast("zhytomyr", "Zhytomyr", 50.2547, 28.6587,
                 false, 1208212, "Northern"));
 
-        graph.addOblast(new Oblast("vinnytsia", "Vinnytsia", 49.2328, 28.4681,
+        mutator.addOblast(new Oblast("vinnytsia", "Vinnytsia", 49.2328, 28.4681,
                 false, 1545416, "Central"));
 
-        graph.addOblast(new Oblast("khmelnytskyi", "Khmelnytskyi", 49.4229, 26.9871,
+        mutator.addOblast(new Oblast("khmelnytskyi", "Khmelnytskyi", 49.4229, 26.9871,
                 false, 1254702, "Western"));
 
         // REGIÃO OESTE
-        graph.addOblast(new Oblast("lviv", "Lviv", 49.8397, 24.0297,
+        mutator.addOblast(new Oblast("lviv", "Lviv", 49.8397, 24.0297,
                 false, 2512084, "Western"));
 
-        graph.addOblast(new Oblast("ivano-frankivsk", "Ivano-Frankivsk", 48.9226, 24.7111,
+        mutator.addOblast(new Oblast("ivano-frankivsk", "Ivano-Frankivsk", 48.9226, 24.7111,
                 false, 1373252, "Western"));
 
-        graph.addOblast(new Oblast("ternopil", "Ternopil", 49.5535, 25.5948,
+        mutator.addOblast(new Oblast("ternopil", "Ternopil", 49.5535, 25.5948,
                 false, 1045879, "Western"));
 
-        graph.addOblast(new Oblast("rivne", "Rivne", 50.6199, 26.2516,
+        mutator.addOblast(new Oblast("rivne", "Rivne", 50.6199, 26.2516,
                 false, 1152961, "Western"));
 
-        graph.addOblast(new Oblast("volyn", "Volyn", 50.7472, 25.3254,
+        mutator.addOblast(new Oblast("volyn", "Volyn", 50.7472, 25.3254,
                 false, 1035330, "Western"));
 
-        graph.addOblast(new Oblast("zakarpattia", "Zakarpattia", 48.6208, 22.2879,
+        mutator.addOblast(new Oblast("zakarpattia", "Zakarpattia", 48.6208, 22.2879,
                 false, 1253791, "Western"));
 
-        graph.addOblast(new Oblast("chernivtsi", "Chernivtsi", 48.2921, 25.9358,
+        mutator.addOblast(new Oblast("chernivtsi", "Chernivtsi", 48.2921, 25.9358,
                 false, 904374, "Western"));
 
         // REGIÃO SUL
-        graph.addOblast(new Oblast("odesa", "Odesa", 46.4825, 30.7233,
+        mutator.addOblast(new Oblast("odesa", "Odesa", 46.4825, 30.7233,
                 false, 2390572, "Southern"));
 
-        graph.addOblast(new Oblast("mykolaiv", "Mykolaiv", 46.9750, 31.9946,
+        mutator.addOblast(new Oblast("mykolaiv", "Mykolaiv", 46.9750, 31.9946,
                 false, 1119862, "Southern"));
 
-        graph.addOblast(new Oblast("kherson", "Kherson", 46.6354, 32.6169,
+        mutator.addOblast(new Oblast("kherson", "Kherson", 46.6354, 32.6169,
                 true, 1037640, "Southern")); // FRONTLINE - Dombas
 
-        graph.addOblast(new Oblast("crimea", "Crimea", 45.0355, 34.1021,
+        mutator.addOblast(new Oblast("crimea", "Crimea", 45.0355, 34.1021,
                 true, 2033700, "Southern")); // Ocupada
 
         // REGIÃO LESTE (DOMBAS)
-        graph.addOblast(new Oblast("donetsk", "Donetsk", 48.0159, 37.8028,
+        mutator.addOblast(new Oblast("donetsk", "Donetsk", 48.0159, 37.8028,
                 true, 4165901, "Eastern")); // FRONTLINE - Dombas
 
-        graph.addOblast(new Oblast("luhansk", "Luhansk", 48.5740, 39.3078,
+        mutator.addOblast(new Oblast("luhansk", "Luhansk", 48.5740, 39.3078,
                 true, 2151833, "Eastern")); // FRONTLINE - Dombas
 
-        graph.addOblast(new Oblast("zaporizhzhia", "Zaporizhzhia", 47.8388, 35.1396,
+        mutator.addOblast(new Oblast("zaporizhzhia", "Zaporizhzhia", 47.8388, 35.1396,
                 true, 1687401, "Southern")); // FRONTLINE - Dombas
 
-        graph.addOblast(new Oblast("dnipropetrovsk", "Dnipropetrovsk", 48.4647, 35.0462,
+        mutator.addOblast(new Oblast("dnipropetrovsk", "Dnipropetrovsk", 48.4647, 35.0462,
                 false, 3176648, "Eastern"));
 
-        graph.addOblast(new Oblast("kharkiv", "Kharkiv", 49.9935, 36.2304,
+        mutator.addOblast(new Oblast("kharkiv", "Kharkiv", 49.9935, 36.2304,
                 true, 2658461, "Eastern")); // Próximo à frontline
 
-        graph.addOblast(new Oblast("poltava", "Poltava", 49.5883, 34.5514,
+        mutator.addOblast(new Oblast("poltava", "Poltava", 49.5883, 34.5514,
                 false, 1386978, "Central"));
 
-        graph.addOblast(new Oblast("sumy", "Sumy", 50.9077, 34.7981,
+        mutator.addOblast(new Oblast("sumy", "Sumy", 50.9077, 34.7981,
                 false, 1068247, "Northern"));
 
-        graph.addOblast(new Oblast("kirovohrad", "Kirovohrad", 48.5132, 32.2597,
+        mutator.addOblast(new Oblast("kirovohrad", "Kirovohrad", 48.5132, 32.2597,
                 false, 945549, "Central"));
     }
 
@@ -114,79 +119,79 @@ public class UkraineData {
      * Adiciona todas as conexões ferroviárias principais
      * Distâncias baseadas em rotas ferroviárias reais
      */
-    private static void addAllConnections(Graph graph) {
+    private static void addAllConnections(Graph.Mutator mutator) {
         // CONEXÕES A PARTIR DE KYIV (HUB CENTRAL)
-        graph.addConnection("kyiv", "cherkasy", 185);
-        graph.addConnection("kyiv", "chernihiv", 148);
-        graph.addConnection("kyiv", "zhytomyr", 140);
-        graph.addConnection("kyiv", "vinnytsia", 268);
-        graph.addConnection("kyiv", "poltava", 343);
-        graph.addConnection("kyiv", "dnipropetrovsk", 477);
-        graph.addConnection("kyiv", "kharkiv", 478);
+        mutator.addConnection("kyiv", "cherkasy", 185);
+        mutator.addConnection("kyiv", "chernihiv", 148);
+        mutator.addConnection("kyiv", "zhytomyr", 140);
+        mutator.addConnection("kyiv", "vinnytsia", 268);
+        mutator.addConnection("kyiv", "poltava", 343);
+        mutator.addConnection("kyiv", "dnipropetrovsk", 477);
+        mutator.addConnection("kyiv", "kharkiv", 478);
 
         // CONEXÕES REGIÃO OESTE
-        graph.addConnection("lviv", "ivano-frankivsk", 132);
-        graph.addConnection("lviv", "ternopil", 132);
-        graph.addConnection("lviv", "rivne", 210);
-        graph.addConnection("lviv", "volyn", 150);
-        graph.addConnection("lviv", "zakarpattia", 265);
+        mutator.addConnection("lviv", "ivano-frankivsk", 132);
+        mutator.addConnection("lviv", "ternopil", 132);
+        mutator.addConnection("lviv", "rivne", 210);
+        mutator.addConnection("lviv", "volyn", 150);
+        mutator.addConnection("lviv", "zakarpattia", 265);
 
-        graph.addConnection("ivano-frankivsk", "ternopil", 122);
-        graph.addConnection("ivano-frankivsk", "chernivtsi", 132);
-        graph.addConnection("ivano-frankivsk", "zakarpattia", 190);
+        mutator.addConnection("ivano-frankivsk", "ternopil", 122);
+        mutator.addConnection("ivano-frankivsk", "chernivtsi", 132);
+        mutator.addConnection("ivano-frankivsk", "zakarpattia", 190);
 
-        graph.addConnection("ternopil", "khmelnytskyi", 110);
-        graph.addConnection("ternopil", "chernivtsi", 243);
+        mutator.addConnection("ternopil", "khmelnytskyi", 110);
+        mutator.addConnection("ternopil", "chernivtsi", 243);
 
-        graph.addConnection("khmelnytskyi", "vinnytsia", 120);
-        graph.addConnection("khmelnytskyi", "rivne", 184);
+        mutator.addConnection("khmelnytskyi", "vinnytsia", 120);
+        mutator.addConnection("khmelnytskyi", "rivne", 184);
 
-        graph.addConnection("rivne", "volyn", 72);
-        graph.addConnection("rivne", "zhytomyr", 189);
+        mutator.addConnection("rivne", "volyn", 72);
+        mutator.addConnection("rivne", "zhytomyr", 189);
 
-        graph.addConnection("zhytomyr", "vinnytsia", 128);
+        mutator.addConnection("zhytomyr", "vinnytsia", 128);
 
         // CONEXÕES REGIÃO NORTE
-        graph.addConnection("chernihiv", "sumy", 186);
-        graph.addConnection("sumy", "kharkiv", 218);
-        graph.addConnection("sumy", "poltava", 165);
+        mutator.addConnection("chernihiv", "sumy", 186);
+        mutator.addConnection("sumy", "kharkiv", 218);
+        mutator.addConnection("sumy", "poltava", 165);
 
         // CONEXÕES REGIÃO CENTRAL
-        graph.addConnection("vinnytsia", "cherkasy", 195);
-        graph.addConnection("vinnytsia", "kirovohrad", 178);
-        graph.addConnection("vinnytsia", "odesa", 395);
+        mutator.addConnection("vinnytsia", "cherkasy", 195);
+        mutator.addConnection("vinnytsia", "kirovohrad", 178);
+        mutator.addConnection("vinnytsia", "odesa", 395);
 
-        graph.addConnection("cherkasy", "kirovohrad", 123);
-        graph.addConnection("cherkasy", "poltava", 255);
+        mutator.addConnection("cherkasy", "kirovohrad", 123);
+        mutator.addConnection("cherkasy", "poltava", 255);
 
-        graph.addConnection("poltava", "kharkiv", 142);
-        graph.addConnection("poltava", "dnipropetrovsk", 216);
+        mutator.addConnection("poltava", "kharkiv", 142);
+        mutator.addConnection("poltava", "dnipropetrovsk", 216);
 
         // CONEXÕES REGIÃO SUL
-        graph.addConnection("odesa", "mykolaiv", 131);
-        graph.addConnection("mykolaiv", "kherson", 71);
-        graph.addConnection("mykolaiv", "kirovohrad", 182);
+        mutator.addConnection("odesa", "mykolaiv", 131);
+        mutator.addConnection("mykolaiv", "kherson", 71);
+        mutator.addConnection("mykolaiv", "kirovohrad", 182);
 
-        graph.addConnection("kherson", "crimea", 178);
-        graph.addConnection("kherson", "zaporizhzhia", 298);
+        mutator.addConnection("kherson", "crimea", 178);
+        mutator.addConnection("kherson", "zaporizhzhia", 298);
 
-        graph.addConnection("crimea", "zaporizhzhia", 356);
+        mutator.addConnection("crimea", "zaporizhzhia", 356);
 
         // CONEXÕES REGIÃO LESTE (DOMBAS)
-        graph.addConnection("dnipropetrovsk", "zaporizhzhia", 82);
-        graph.addConnection("dnipropetrovsk", "kharkiv", 214);
-        graph.addConnection("dnipropetrovsk", "donetsk", 247);
-        graph.addConnection("dnipropetrovsk", "kirovohrad", 190);
+        mutator.addConnection("dnipropetrovsk", "zaporizhzhia", 82);
+        mutator.addConnection("dnipropetrovsk", "kharkiv", 214);
+        mutator.addConnection("dnipropetrovsk", "donetsk", 247);
+        mutator.addConnection("dnipropetrovsk", "kirovohrad", 190);
 
-        graph.addConnection("zaporizhzhia", "donetsk", 236);
+        mutator.addConnection("zaporizhzhia", "donetsk", 236);
 
-        graph.addConnection("kharkiv", "donetsk", 306);
-        graph.addConnection("kharkiv", "luhansk", 268);
+        mutator.addConnection("kharkiv", "donetsk", 306);
+        mutator.addConnection("kharkiv", "luhansk", 268);
 
-        graph.addConnection("donetsk", "luhansk", 145);
+        mutator.addConnection("donetsk", "luhansk", 145);
 
         // CONEXÕES ADICIONAIS ESTRATÉGICAS
-        graph.addConnection("kirovohrad", "zaporizhzhia", 200);
+        mutator.addConnection("kirovohrad", "zaporizhzhia", 200);
     }
 
     /**
@@ -217,20 +222,46 @@ public class UkraineData {
 
     /**
      * Simula destruição de conexões em regiões de fronteira
+     * (um único lote: uma publicação para toda a vaga de danos)
      */
     public static void simulateWarDamage(Graph graph, double destructionPercent) {
         String[] frontlineOblasts = getDombasOblasts();
+        GraphSnapshot current = graph.getSnapshot();
+
+        graph.batch(mutator -> {
+            for (String oblastId : frontlineOblasts) {
+                int u = current.indexOf(oblastId);
+                if (u < 0) continue;
+                for (int e = current.firstEdge(u); e < current.endEdge(u); e++) {
+                    if (Math.random() < destructionPercent / 100.0) {
+                        // Via Graph para manter listas e fotografia sincronizadas
+                        mutator.destroyConnection(oblastId, current.getId(current.getTarget(e)));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Variante persistente: deriva da fotografia um cenário com a mesma
+     * destruição aleatória, sem alterar o grafo nem copiar a rede
+     */
+    public static GraphSnapshot simulateWarDamage(GraphSnapshot snapshot, double destructionPercent) {
+        int[] destroyed = new int[snapshot.getEdgeCount()];
+        int count = 0;
+
+        for (String oblastId : getDombasOblasts()) {
+            int u = snapshot.indexOf(oblastId);
+            if (u < 0) continue;
 
-        for (String oblastId : frontlineOblasts) {
-            for (Connection conn : graph.getConnections(oblastId)) {
-                if (Math.random() < destructionPercent / 100.0) {
-                    conn.setDestroyed(true);
+            for (int e = snapshot.firstEdge(u); e < snapshot.endEdge(u); e++) {
+                if (snapshot.isUsable(e) && Math.random() < destructionPercent / 100.0) {
+                    destroyed[count++] = e;
                 }
             }
         }
 
-        // Reconstruir matriz
-        graph.getAdjacencyMatrix();
+        return snapshot.withoutEdges(Arrays.copyOf(destroyed, count));
     }
 
     /**
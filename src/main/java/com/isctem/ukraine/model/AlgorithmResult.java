@@ -70,14 +70,14 @@ public class AlgorithmResult {
     }
 
     /**
-     * Retorna a melhor rota (menor distância)
+     * Retorna a melhor rota (menor custo)
      */
     public Route getBestRoute() {
         if (mainRoute == null) return null;
 
         Route best = mainRoute;
         for (Route alt : alternativeRoutes) {
-            if (alt.getTotalDistance() < best.getTotalDistance()) {
+            if (alt.getTotalCost() < best.getTotalCost()) {
                 best = alt;
             }
         }
@@ -85,7 +85,7 @@ public class AlgorithmResult {
     }
 
     /**
-     * Retorna todas as rotas ordenadas por distância
+     * Retorna todas as rotas ordenadas por custo
      */
     public List<Route> getAllRoutesSorted() {
         List<Route> allRoutes = new ArrayList<>();
@@ -93,7 +93,7 @@ public class AlgorithmResult {
             allRoutes.add(mainRoute);
         }
         allRoutes.addAll(alternativeRoutes);
-        allRoutes.sort(Comparator.comparingDouble(Route::getTotalDistance));
+        allRoutes.sort(Comparator.comparingDouble(Route::getTotalCost));
         return allRoutes;
     }
 
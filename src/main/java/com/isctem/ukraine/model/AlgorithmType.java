@@ -13,6 +13,21 @@ public enum AlgorithmType {
     DIJKSTRA("Dijkstra", "Algoritmo de Dijkstra",
             "Encontra o caminho mais curto de um ponto para todos os outros", true),
 
+    BIDIRECTIONAL_DIJKSTRA("Bidirectional Dijkstra", "Dijkstra Bidirecional",
+            "Busca simultânea a partir da origem e do destino até as fronteiras se encontrarem", true),
+
+    ASTAR("A* Search", "Busca A*",
+            "Dijkstra guiado pela distância geodésica (Haversine) até o destino", true),
+
+    ALT("ALT (A*, Landmarks, Triangle inequality)", "A* com Landmarks",
+            "A* com limites inferiores pré-calculados a partir de landmarks", true),
+
+    CONTRACTION_HIERARCHIES("Contraction Hierarchies", "Hierarquias de Contração",
+            "Busca bidirecional ascendente numa hierarquia de atalhos pré-calculada", true),
+
+    RESOURCE_CONSTRAINED("Resource-Constrained Shortest Path", "Caminho com Restrição de Recursos",
+            "Caminho mínimo com alcance máximo entre reabastecimentos e limite de saltos", true),
+
     KRUSKAL("Kruskal", "Algoritmo de Kruskal",
             "Encontra a árvore geradora mínima usando ordenação de arestas", true),
 
@@ -54,7 +69,8 @@ public enum AlgorithmType {
     public String getCategory() {
         return switch (this) {
             case BFS, DFS -> "Busca/Travessia";
-            case DIJKSTRA -> "Caminho Mínimo";
+            case DIJKSTRA, BIDIRECTIONAL_DIJKSTRA, ASTAR, ALT, CONTRACTION_HIERARCHIES -> "Caminho Mínimo";
+            case RESOURCE_CONSTRAINED -> "Caminho Mínimo com Restrições";
             case KRUSKAL, PRIM -> "Árvore Geradora Mínima";
         };
     }
@@ -67,6 +83,11 @@ public enum AlgorithmType {
             case BFS -> "O(V + E)";
             case DFS -> "O(V + E)";
             case DIJKSTRA -> "O((V + E) log V)";
+            case BIDIRECTIONAL_DIJKSTRA -> "O((V + E) log V)";
+            case ASTAR -> "O((V + E) log V), tipicamente muito menos";
+            case ALT -> "Pré-processamento O(k (V + E) log V); consulta O((V + E) log V) no pior caso";
+            case CONTRACTION_HIERARCHIES -> "Pré-processamento por contração de vértices; consulta em poucas centenas de nós";
+            case RESOURCE_CONSTRAINED -> "Exponencial no pior caso; dominância e limites inferiores mantêm poucos rótulos por nó";
             case KRUSKAL -> "O(E log E)";
             case PRIM -> "O((V + E) log V)";
         };
@@ -80,6 +101,11 @@ public enum AlgorithmType {
             case BFS -> "Caminho mais curto em grafos não-ponderados";
             case DFS -> "Detectar ciclos, ordenação topológica";
             case DIJKSTRA -> "Caminho mais curto em grafos ponderados";
+            case BIDIRECTIONAL_DIJKSTRA -> "Rotas ponto-a-ponto longas (explora cerca de metade dos nós)";
+            case ASTAR -> "Consultas ponto-a-ponto interativas com coordenadas geográficas";
+            case ALT -> "Muitas consultas repetidas numa rede quase estática";
+            case CONTRACTION_HIERARCHIES -> "Volume alto de consultas numa rede que raramente muda";
+            case RESOURCE_CONSTRAINED -> "Comboios com autonomia limitada que reabastecem em Oblasts bem abastecidos";
             case KRUSKAL -> "Conectar todos os pontos com menor custo total";
             case PRIM -> "Conectar todos os pontos a partir de um inicial";
         };
@@ -5,25 +5,39 @@ import java.util.Objects;
 /**
  * Representa uma conexão ferroviária entre dois Oblasts.
  * Cada conexão é uma aresta no grafo com peso (distância).
+ *
+ * Em grafos não-direcionados as duas direções são Conexões distintas
+ * (ver {@link #reversed()}) que partilham o mesmo estado da linha.
  */
 public class Connection {
     private final Oblast from;
     private final Oblast to;
     private final double distance;
-    private boolean isDestroyed;
     private String railwayType;
-    private double condition;
+    private final LineState state;
+
+    /**
+     * Condição e destruição da linha física (um registo por linha,
+     * referenciado pelas duas direções)
+     */
+    private static final class LineState {
+        boolean isDestroyed;
+        double condition = 100.0;
+    }
 
     /**
      * Construtor completo
      */
     public Connection(Oblast from, Oblast to, double distance, String railwayType) {
+        this(from, to, distance, railwayType, new LineState());
+    }
+
+    private Connection(Oblast from, Oblast to, double distance, String railwayType, LineState state) {
         this.from = from;
         this.to = to;
         this.distance = distance;
         this.railwayType = railwayType;
-        this.isDestroyed = false;
-        this.condition = 100.0;
+        this.state = state;
     }
 
     /**
@@ -33,6 +47,14 @@ public class Connection {
         this(from, to, distance, "STANDARD");
     }
 
+    /**
+     * Mesma linha no sentido inverso: destruir ou danificar qualquer uma
+     * das direções altera ambas
+     */
+    Connection reversed() {
+        return new Connection(to, from, distance, railwayType, state);
+    }
+
     // Getters
     public Oblast getFrom() {
         return from;
@@ -47,7 +69,7 @@ public class Connection {
     }
 
     public boolean isDestroyed() {
-        return isDestroyed;
+        return state.isDestroyed;
     }
 
     public String getRailwayType() {
@@ -55,34 +77,34 @@ public class Connection {
     }
 
     public double getCondition() {
-        return condition;
+        return state.condition;
     }
 
     // Setters
     public void setDestroyed(boolean destroyed) {
-        this.isDestroyed = destroyed;
+        state.isDestroyed = destroyed;
         if (destroyed) {
-            this.condition = 0;
+            state.condition = 0;
         }
     }
 
     public void setCondition(double condition) {
-        this.condition = Math.max(0, Math.min(100, condition));
-        if (this.condition == 0) {
-            this.isDestroyed = true;
+        state.condition = Math.max(0, Math.min(100, condition));
+        if (state.condition == 0) {
+            state.isDestroyed = true;
         }
     }
 
     public void damageConnection(double damagePercent) {
-        this.condition = Math.max(0, this.condition - damagePercent);
-        if (this.condition == 0) {
-            this.isDestroyed = true;
+        state.condition = Math.max(0, state.condition - damagePercent);
+        if (state.condition == 0) {
+            state.isDestroyed = true;
         }
     }
 
     public void repairConnection(double repairPercent) {
-        if (!isDestroyed) {
-            this.condition = Math.min(100, this.condition + repairPercent);
+        if (!state.isDestroyed) {
+            state.condition = Math.min(100, state.condition + repairPercent);
         }
     }
 
@@ -90,9 +112,16 @@ public class Connection {
      * Retorna o peso efetivo considerando a condição da linha
      */
     public double getEffectiveWeight() {
-        if (isDestroyed) {
+        if (state.isDestroyed) {
             return Double.POSITIVE_INFINITY;
         }
+        return getEffectiveWeight(state.condition);
+    }
+
+    /**
+     * Peso efetivo para uma condição dada (ex.: a registada numa fotografia)
+     */
+    public double getEffectiveWeight(double condition) {
         // Quanto pior a condição, maior o "custo" de usar esta linha
         double conditionFactor = 100.0 / Math.max(1, condition);
         return distance * conditionFactor;
@@ -102,7 +131,7 @@ public class Connection {
      * Verifica se a conexão é utilizável
      */
     public boolean isUsable() {
-        return !isDestroyed && condition > 0;
+        return !state.isDestroyed && state.condition > 0;
     }
 
     /**
@@ -129,7 +158,8 @@ public class Connection {
      * Retorna cor baseada na condição (para visualização)
      */
     public String getConditionColor() {
-        if (isDestroyed) {
+        double condition = state.condition;
+        if (state.isDestroyed) {
             return "#e74c3c";
         } else if (condition < 30) {
             return "#e67e22";
@@ -146,10 +176,10 @@ public class Connection {
      * Retorna espessura da linha baseada na condição
      */
     public int getLineThickness() {
-        if (isDestroyed) {
+        if (state.isDestroyed) {
             return 1;
         }
-        return (int) (1 + (condition / 25)); // 1 a 5
+        return (int) (1 + (state.condition / 25)); // 1 a 5
     }
 
     @Override
@@ -170,7 +200,7 @@ public class Connection {
     public String toString() {
         return String.format("Connection{%s -> %s, %.1fkm, %s, %.0f%%}",
                 from.getName(), to.getName(), distance,
-                isDestroyed ? "DESTROYED" : "OK", condition);
+                state.isDestroyed ? "DESTROYED" : "OK", state.condition);
     }
 
     /**
@@ -188,7 +218,7 @@ public class Connection {
             Effective Weight: %.2f
             """,
                 from.getName(), to.getName(), distance, railwayType,
-                condition, isDestroyed ? "DESTROYED" : "OPERATIONAL",
+                state.condition, state.isDestroyed ? "DESTROYED" : "OPERATIONAL",
                 getEffectiveWeight());
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.isctem.ukraine.model;
+
+import java.util.Arrays;
+
+/**
+ * Índice (fromIdx, toIdx) -> Conexão com endereçamento aberto.
+ *
+ * As chaves são os dois índices empacotados num long primitivo (sem
+ * boxing nem um objeto por entrada). Sondagem linear com fator de carga
+ * até 1/2; a remoção desloca as entradas seguintes para trás, pelo que
+ * não há lápides e as consultas nunca degradam.
+ */
+final class EdgeIndex {
+    private static final long EMPTY = -1L;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Connection[] values;
+    private int mask;
+    private int size;
+
+    EdgeIndex() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Conexão registada de from para to, ou null
+     */
+    Connection get(int from, int to) {
+        int slot = find(pack(from, to));
+        return slot >= 0 ? values[slot] : null;
+    }
+
+    /**
+     * Regista a conexão se ainda não houver uma de from para to (mantém a
+     * primeira, como a procura linear na lista de adjacência)
+     */
+    void putIfAbsent(int from, int to, Connection connection) {
+        long key = pack(from, to);
+        int slot = slotOf(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) return;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = connection;
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+    }
+
+    void remove(int from, int to) {
+        int gap = find(pack(from, to));
+        if (gap < 0) return;
+
+        // Desloca para o buraco as entradas cuja posição ideal o precede
+        int i = (gap + 1) & mask;
+        while (keys[i] != EMPTY) {
+            int home = slotOf(keys[i]);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        values[gap] = null;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int find(long key) {
+        int slot = slotOf(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Connection[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new Connection[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slotOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static long pack(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+}
@@ -1,29 +1,98 @@
 package com.isctem.ukraine.model;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Representa o grafo completo da rede ferroviária ucraniana.
- * Implementa tanto Matriz de Adjacência quanto Lista de Adjacência.
+ * Mantém a Lista de Adjacência; a Matriz de Adjacência (O(V²)) só é
+ * construída quando pedida ({@link #getAdjacencyMatrix()}).
+ *
+ * As modificações são serializadas e cada uma cria uma nova versão. A
+ * {@link GraphSnapshot} imutável dessa versão é construída no primeiro
+ * {@link #getSnapshot()} seguinte (ou de imediato, se houver observadores),
+ * pelo que inserções seguidas custam O(1) cada; leitores concorrentes nunca
+ * veem estado parcial.
  */
 public class Graph {
+
+    /**
+     * Observador de modificações: recebe a fotografia anterior e a nova.
+     * Chamado na thread que modificou o grafo, com o lock de escrita.
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        void graphChanged(GraphSnapshot before, GraphSnapshot after);
+
+        /**
+         * Recebe o conjunto de alterações publicado (uma modificação ou um
+         * lote inteiro); por omissão usa apenas as duas fotografias
+         */
+        default void graphChanged(ChangeSet changes) {
+            graphChanged(changes.before(), changes.after());
+        }
+    }
+
+    /**
+     * Alterações publicadas numa única versão: Conexões adicionadas,
+     * removidas ou com estado alterado, Oblasts adicionados, removidos ou
+     * destruídos e o número de operações agrupadas
+     */
+    public record ChangeSet(GraphSnapshot before, GraphSnapshot after,
+                            Set<Connection> connections, Set<String> oblastIds, int operations) {
+
+        /**
+         * Vértices ou posições de arestas mudaram (índices não comparáveis)
+         */
+        public boolean isStructural() {
+            return !after.hasSameLayout(before);
+        }
+    }
+
+    // Capacidade inicial das tabelas de ids internados (cresce por duplicação)
+    private static final int INITIAL_CAPACITY = 16;
+
     // Estruturas de dados principais
     private final Map<String, Oblast> oblasts;
     private final List<Connection> connections;
 
-    // Matriz de Adjacência: [i][j] = distância entre oblast i e oblast j
-    private double[][] adjacencyMatrix;
-
     // Lista de Adjacência: Map<oblastId, List<Connection>>
     private final Map<String, List<Connection>> adjacencyList;
 
-    // Mapeamento de IDs para índices da matriz
+    // Ids internados: cada Oblast recebe um índice denso (o das fotografias),
+    // nunca reutilizado depois de uma remoção
     private final Map<String, Integer> idToIndex;
-    private final Map<Integer, String> indexToId;
+
+    // Tabelas índice -> id / Oblast (null se removido). Partilhadas com as
+    // fotografias: inserções escrevem além do nodeCount publicado e as
+    // remoções copiam as tabelas antes de as alterar
+    private String[] indexToId;
+    private Oblast[] indexToOblast;
+
+    // Índice (from, to) -> primeira Conexão, para getConnection em O(1)
+    private final EdgeIndex edgeIndex;
+
+    // Cópia imutável de idToIndex partilhada pelas fotografias
+    // (null até ser pedida depois de o conjunto de Oblasts mudar)
+    private Map<String, Integer> publishedIndex;
 
     private int nodeCount;
     private boolean isDirected;
 
+    // Última fotografia CSR construída (pode estar atrás de version)
+    private final AtomicReference<GraphSnapshot> snapshot;
+
+    // Versão do grafo: incrementada a cada modificação (escrita com o lock de escrita)
+    private volatile long version;
+
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Elementos alterados desde a última fotografia construída (entram no próximo ChangeSet)
+    private final Set<Connection> pendingConnections = new HashSet<>();
+    private final Set<String> pendingOblastIds = new HashSet<>();
+
     /**
      * Construtor
      */
@@ -32,9 +101,12 @@ public class Graph {
         this.connections = new ArrayList<>();
         this.adjacencyList = new HashMap<>();
         this.idToIndex = new HashMap<>();
-        this.indexToId = new HashMap<>();
+        this.indexToId = new String[0];
+        this.indexToOblast = new Oblast[0];
+        this.edgeIndex = new EdgeIndex();
         this.nodeCount = 0;
         this.isDirected = isDirected;
+        this.snapshot = new AtomicReference<>(GraphSnapshot.empty(isDirected));
     }
 
     /**
@@ -49,52 +121,84 @@ public class Graph {
     /**
      * Adiciona um Oblast ao grafo
      */
-    public void addOblast(Oblast oblast) {
+    public synchronized void addOblast(Oblast oblast) {
+        if (insertOblast(oblast)) {
+            markModified();
+        }
+    }
+
+    private boolean insertOblast(Oblast oblast) {
         if (!oblasts.containsKey(oblast.getId())) {
             oblasts.put(oblast.getId(), oblast);
             adjacencyList.put(oblast.getId(), new ArrayList<>());
 
-            // Atribuir índice para matriz
-            idToIndex.put(oblast.getId(), nodeCount);
-            indexToId.put(nodeCount, oblast.getId());
+            // Atribuir índice denso
+            int index = nodeCount;
+            idToIndex.put(oblast.getId(), index);
+            if (index == indexToId.length) {
+                int capacity = Math.max(INITIAL_CAPACITY, index * 2);
+                indexToId = Arrays.copyOf(indexToId, capacity);
+                indexToOblast = Arrays.copyOf(indexToOblast, capacity);
+            }
+            indexToId[index] = oblast.getId();
+            indexToOblast[index] = oblast;
+            publishedIndex = null;
             nodeCount++;
-
-            // Reconstruir matriz
-            rebuildAdjacencyMatrix();
+            pendingOblastIds.add(oblast.getId());
+            return true;
         }
+        return false;
     }
 
     /**
      * Adiciona uma conexão entre dois Oblasts
      */
-    public void addConnection(Connection connection) {
+    public synchronized void addConnection(Connection connection) {
+        if (insertConnection(connection)) {
+            markModified();
+        }
+    }
+
+    /**
+     * Regista a conexão (linhas paralelas são permitidas, por isso há
+     * sempre alteração)
+     */
+    private boolean insertConnection(Connection connection) {
         Oblast from = connection.getFrom();
         Oblast to = connection.getTo();
 
         // Garantir que os Oblasts existem
-        addOblast(from);
-        addOblast(to);
+        insertOblast(from);
+        insertOblast(to);
 
         // Adicionar à lista de conexões
         connections.add(connection);
 
         // Adicionar à lista de adjacência
+        int fromIdx = idToIndex.get(from.getId());
+        int toIdx = idToIndex.get(to.getId());
         adjacencyList.get(from.getId()).add(connection);
+        edgeIndex.putIfAbsent(fromIdx, toIdx, connection);
         if (!isDirected) {
             // Para grafo não-direcionado, adicionar em ambas direções
-            Connection reverse = new Connection(to, from, connection.getDistance(),
-                    connection.getRailwayType());
+            // (a cópia inversa partilha o estado da linha)
+            Connection reverse = connection.reversed();
             adjacencyList.get(to.getId()).add(reverse);
+            edgeIndex.putIfAbsent(toIdx, fromIdx, reverse);
         }
 
-        // Atualizar matriz
-        updateMatrixConnection(from.getId(), to.getId(), connection.getDistance());
+        pendingConnections.add(connection);
+        return true;
     }
 
     /**
      * Adiciona conexão simplificada
      */
-    public void addConnection(String fromId, String toId, double distance) {
+    public synchronized void addConnection(String fromId, String toId, double distance) {
+        addConnection(newConnection(fromId, toId, distance));
+    }
+
+    private Connection newConnection(String fromId, String toId, double distance) {
         Oblast from = oblasts.get(fromId);
         Oblast to = oblasts.get(toId);
 
@@ -102,51 +206,7 @@ public class Graph {
             throw new IllegalArgumentException("Um ou ambos Oblasts não existem");
         }
 
-        addConnection(new Connection(from, to, distance));
-    }
-
-    // ========== CONSTRUÇÃO DA MATRIZ ==========
-
-    /**
-     * Reconstrói a matriz de adjacência
-     */
-    private void rebuildAdjacencyMatrix() {
-        adjacencyMatrix = new double[nodeCount][nodeCount];
-
-        // Inicializar com infinito
-        for (int i = 0; i < nodeCount; i++) {
-            Arrays.fill(adjacencyMatrix[i], Double.POSITIVE_INFINITY);
-            adjacencyMatrix[i][i] = 0; // Distância para si mesmo é 0
-        }
-
-        // Preencher com conexões existentes
-        for (Connection conn : connections) {
-            if (!conn.isDestroyed()) {
-                int fromIdx = idToIndex.get(conn.getFrom().getId());
-                int toIdx = idToIndex.get(conn.getTo().getId());
-                adjacencyMatrix[fromIdx][toIdx] = conn.getDistance();
-                if (!isDirected) {
-                    adjacencyMatrix[toIdx][fromIdx] = conn.getDistance();
-                }
-            }
-        }
-    }
-
-    /**
-     * Atualiza uma conexão específica na matriz
-     */
-    private void updateMatrixConnection(String fromId, String toId, double distance) {
-        if (adjacencyMatrix == null) return;
-
-        Integer fromIdx = idToIndex.get(fromId);
-        Integer toIdx = idToIndex.get(toId);
-
-        if (fromIdx != null && toIdx != null) {
-            adjacencyMatrix[fromIdx][toIdx] = distance;
-            if (!isDirected) {
-                adjacencyMatrix[toIdx][fromIdx] = distance;
-            }
-        }
+        return new Connection(from, to, distance);
     }
 
     // ========== MÉTODOS DE CONSULTA ==========
@@ -173,10 +233,19 @@ public class Graph {
     }
 
     /**
-     * Retorna conexões de um Oblast específico
+     * Número de conexões registadas (sem copiar a lista)
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Retorna conexões de um Oblast específico (cópia; para percorrer
+     * vizinhos sem alocar usar {@link #forEachNeighbor})
      */
     public List<Connection> getConnections(String oblastId) {
-        return new ArrayList<>(adjacencyList.getOrDefault(oblastId, new ArrayList<>()));
+        List<Connection> conns = adjacencyList.get(oblastId);
+        return conns != null ? new ArrayList<>(conns) : new ArrayList<>();
     }
 
     /**
@@ -186,14 +255,39 @@ public class Graph {
         List<Connection> conns = adjacencyList.get(oblastId);
         if (conns == null) return new ArrayList<>();
 
-        return conns.stream()
-                .filter(Connection::isUsable)
-                .map(c -> c.getTo())
-                .toList();
+        List<Oblast> neighbors = new ArrayList<>(conns.size());
+        for (Connection conn : conns) {
+            if (conn.isUsable()) {
+                neighbors.add(conn.getTo());
+            }
+        }
+        return neighbors;
     }
 
     /**
-     * Retorna a distância entre dois Oblasts
+     * Percorre os vizinhos alcançáveis na última fotografia publicada
+     * (índice destino, peso e posição da aresta) sem alocar listas
+     */
+    public void forEachNeighbor(String oblastId, GraphSnapshot.NeighborVisitor visitor) {
+        GraphSnapshot current = getSnapshot();
+        int index = current.indexOf(oblastId);
+        if (index >= 0) {
+            current.forEachNeighbor(index, visitor);
+        }
+    }
+
+    /**
+     * Número de vizinhos alcançáveis (arestas utilizáveis) de um Oblast
+     */
+    public int getDegree(String oblastId) {
+        GraphSnapshot current = getSnapshot();
+        int index = current.indexOf(oblastId);
+        return index >= 0 ? current.degree(index) : 0;
+    }
+
+    /**
+     * Retorna a distância entre dois Oblasts (0 para o próprio Oblast,
+     * infinito sem conexão direta utilizável)
      */
     public double getDistance(String fromId, String toId) {
         Integer fromIdx = idToIndex.get(fromId);
@@ -203,7 +297,7 @@ public class Graph {
             return Double.POSITIVE_INFINITY;
         }
 
-        return adjacencyMatrix[fromIdx][toIdx];
+        return getDistance(fromIdx, toIdx);
     }
 
     /**
@@ -217,13 +311,74 @@ public class Graph {
      * Retorna conexão específica entre dois Oblasts
      */
     public Connection getConnection(String fromId, String toId) {
-        List<Connection> conns = adjacencyList.get(fromId);
-        if (conns == null) return null;
+        Integer fromIdx = idToIndex.get(fromId);
+        Integer toIdx = idToIndex.get(toId);
+        if (fromIdx == null || toIdx == null) return null;
+
+        return edgeIndex.get(fromIdx, toIdx);
+    }
+
+    // ========== IDS INTERNADOS ==========
+
+    /**
+     * Índice denso do Oblast (o mesmo das fotografias), ou -1
+     */
+    public int indexOf(String oblastId) {
+        Integer index = idToIndex.get(oblastId);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Id do Oblast com o índice dado (null se o índice foi removido)
+     */
+    public String getId(int index) {
+        return index < nodeCount ? indexToId[index] : null;
+    }
+
+    /**
+     * Oblast com o índice dado (null se o índice foi removido)
+     */
+    public Oblast getOblast(int index) {
+        return index < nodeCount ? indexToOblast[index] : null;
+    }
+
+    /**
+     * Primeira conexão de from para to por índice (O(1)), ou null
+     */
+    public Connection getConnection(int fromIndex, int toIndex) {
+        return edgeIndex.get(fromIndex, toIndex);
+    }
 
-        return conns.stream()
-                .filter(c -> c.getTo().getId().equals(toId))
-                .findFirst()
-                .orElse(null);
+    /**
+     * Distância entre dois Oblasts por índice (O(1) pelo índice de conexões)
+     */
+    public double getDistance(int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return getId(fromIndex) != null ? 0 : Double.POSITIVE_INFINITY;
+        }
+        Connection connection = edgeIndex.get(fromIndex, toIndex);
+        return connection != null && connection.isUsable()
+                ? connection.getDistance()
+                : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Tabelas internadas para as fotografias (chamado com o lock de escrita):
+     * não são copiadas em publicações que não alteram o conjunto de Oblasts
+     */
+    String[] internedIds() {
+        return indexToId;
+    }
+
+    Oblast[] internedOblasts() {
+        return indexToOblast;
+    }
+
+    Map<String, Integer> internedIndex() {
+        if (publishedIndex == null) {
+            publishedIndex = Map.copyOf(idToIndex);
+        }
+        return publishedIndex;
     }
 
     // ========== MÉTODOS DE MANIPULAÇÃO ==========
@@ -231,7 +386,30 @@ public class Graph {
     /**
      * Remove um Oblast e todas suas conexões
      */
-    public void removeOblast(String oblastId) {
+    public synchronized void removeOblast(String oblastId) {
+        if (applyRemoveOblast(oblastId)) {
+            markModified();
+        }
+    }
+
+    private boolean applyRemoveOblast(String oblastId) {
+        Integer index = idToIndex.get(oblastId);
+        if (index == null) return false;
+
+        // Retirar do índice as arestas que saem e que chegam ao Oblast
+        for (Connection c : adjacencyList.get(oblastId)) {
+            edgeIndex.remove(index, idToIndex.get(c.getTo().getId()));
+            pendingConnections.add(c);
+        }
+        for (Map.Entry<String, List<Connection>> entry : adjacencyList.entrySet()) {
+            for (Connection c : entry.getValue()) {
+                if (c.getTo().getId().equals(oblastId)) {
+                    edgeIndex.remove(idToIndex.get(entry.getKey()), index);
+                    pendingConnections.add(c);
+                }
+            }
+        }
+
         oblasts.remove(oblastId);
         adjacencyList.remove(oblastId);
         connections.removeIf(c ->
@@ -243,54 +421,329 @@ public class Graph {
             conns.removeIf(c -> c.getTo().getId().equals(oblastId));
         }
 
-        rebuildAdjacencyMatrix();
+        // O índice fica livre (não é reutilizado)
+        idToIndex.remove(oblastId);
+        indexToId = indexToId.clone();
+        indexToOblast = indexToOblast.clone();
+        indexToId[index] = null;
+        indexToOblast[index] = null;
+        publishedIndex = null;
+        pendingOblastIds.add(oblastId);
+        return true;
     }
 
     /**
      * Remove uma conexão específica
      */
-    public void removeConnection(String fromId, String toId) {
+    public synchronized void removeConnection(String fromId, String toId) {
+        if (applyRemoveConnection(fromId, toId)) {
+            markModified();
+        }
+    }
+
+    private boolean applyRemoveConnection(String fromId, String toId) {
+        Connection removed = getConnection(fromId, toId);
+        if (removed == null) return false;
+        pendingConnections.add(removed);
+
         connections.removeIf(c -> c.connects(
                 oblasts.get(fromId), oblasts.get(toId)));
 
         adjacencyList.get(fromId).removeIf(c -> c.getTo().getId().equals(toId));
+        edgeIndex.remove(idToIndex.get(fromId), idToIndex.get(toId));
         if (!isDirected) {
             adjacencyList.get(toId).removeIf(c -> c.getTo().getId().equals(fromId));
+            edgeIndex.remove(idToIndex.get(toId), idToIndex.get(fromId));
         }
-
-        updateMatrixConnection(fromId, toId, Double.POSITIVE_INFINITY);
+        return true;
     }
 
     /**
      * Destrói uma conexão (simulação de ataque)
      */
-    public void destroyConnection(String fromId, String toId) {
+    public synchronized void destroyConnection(String fromId, String toId) {
+        if (applyDestroyConnection(fromId, toId)) {
+            markModified();
+        }
+    }
+
+    private boolean applyDestroyConnection(String fromId, String toId) {
         Connection conn = getConnection(fromId, toId);
-        if (conn != null) {
-            conn.setDestroyed(true);
-            rebuildAdjacencyMatrix();
+        if (conn == null) return false;
+
+        conn.setDestroyed(true);
+        pendingConnections.add(conn);
+        return true;
+    }
+
+    /**
+     * Danifica uma conexão sem a destruir por completo: reduz a condição
+     * (partilhada pelas duas direções) e portanto aumenta o peso efetivo
+     */
+    public synchronized void damageConnection(String fromId, String toId, double damagePercent) {
+        if (applyDamageConnection(fromId, toId, damagePercent)) {
+            markModified();
         }
     }
 
+    private boolean applyDamageConnection(String fromId, String toId, double damagePercent) {
+        Connection conn = getConnection(fromId, toId);
+        if (conn == null) return false;
+
+        conn.damageConnection(damagePercent);
+        pendingConnections.add(conn);
+        return true;
+    }
+
     /**
      * Destrói um Oblast (simulação de ataque)
      */
-    public void destroyOblast(String oblastId) {
+    public synchronized void destroyOblast(String oblastId) {
+        if (applyDestroyOblast(oblastId)) {
+            markModified();
+        }
+    }
+
+    private boolean applyDestroyOblast(String oblastId) {
+        Oblast oblast = oblasts.get(oblastId);
+        if (oblast == null) return false;
+
+        oblast.setDestroyed(true);
+        // Marcar todas conexões como destruídas (em grafos direcionados
+        // também as que chegam ao Oblast)
+        for (Connection conn : adjacencyList.get(oblastId)) {
+            conn.setDestroyed(true);
+            pendingConnections.add(conn);
+        }
+        if (isDirected) {
+            for (Connection conn : connections) {
+                if (conn.getTo() == oblast) {
+                    conn.setDestroyed(true);
+                    pendingConnections.add(conn);
+                }
+            }
+        }
+        pendingOblastIds.add(oblastId);
+        return true;
+    }
+
+    /**
+     * Restaura um Oblast: deixa de estar destruído e o abastecimento volta a
+     * 100%. As conexões não são alteradas (ver {@link #repairAllConnections()})
+     */
+    public synchronized void restoreOblast(String oblastId) {
+        if (applyRestoreOblast(oblastId)) {
+            markModified();
+        }
+    }
+
+    private boolean applyRestoreOblast(String oblastId) {
         Oblast oblast = oblasts.get(oblastId);
-        if (oblast != null) {
-            oblast.setDestroyed(true);
-            // Marcar todas conexões como destruídas
-            for (Connection conn : adjacencyList.get(oblastId)) {
-                conn.setDestroyed(true);
+        if (oblast == null || (!oblast.isDestroyed() && oblast.getSupplyLevel() == 100)) {
+            return false;
+        }
+
+        oblast.setDestroyed(false);
+        oblast.setSupplyLevel(100);
+        pendingOblastIds.add(oblastId);
+        return true;
+    }
+
+    /**
+     * Repara todas as conexões (ambas as direções)
+     */
+    public synchronized void repairAllConnections() {
+        if (applyRepairAllConnections()) {
+            markModified();
+        }
+    }
+
+    private boolean applyRepairAllConnections() {
+        // Cópias inversas partilham o estado: basta percorrer as linhas registadas
+        boolean repaired = false;
+        for (Connection conn : connections) {
+            if (conn.isDestroyed() || conn.getCondition() < 100) {
+                conn.setDestroyed(false);
+                conn.setCondition(100);
+                pendingConnections.add(conn);
+                repaired = true;
+            }
+        }
+        return repaired;
+    }
+
+    // ========== LOTES DE MODIFICAÇÕES ==========
+
+    /**
+     * Aplica várias modificações como uma transação: a fotografia é
+     * reconstruída e publicada uma única vez no fim, e os observadores
+     * recebem um único {@link ChangeSet} (devolvido; null se nenhuma
+     * operação teve efeito). Não há rollback: se o lote falhar a meio, as
+     * operações já aplicadas são publicadas.
+     */
+    public synchronized ChangeSet batch(Consumer<Mutator> changes) {
+        Mutator mutator = new Mutator();
+        ChangeSet published = null;
+        try {
+            changes.accept(mutator);
+        } finally {
+            mutator.open = false;
+            if (mutator.operations > 0) {
+                version++;
+                published = publish(mutator.operations);
+            }
+        }
+        return published;
+    }
+
+    /**
+     * Operações disponíveis dentro de {@link #batch} (mesma semântica dos
+     * métodos públicos do grafo, sem publicar). Inválido fora do lote.
+     */
+    public final class Mutator {
+        private int operations;
+        private boolean open = true;
+
+        private Mutator() {
+        }
+
+        public void addOblast(Oblast oblast) {
+            if (checkOpen() && insertOblast(oblast)) operations++;
+        }
+
+        public void addConnection(Connection connection) {
+            if (checkOpen() && insertConnection(connection)) operations++;
+        }
+
+        public void addConnection(String fromId, String toId, double distance) {
+            if (checkOpen() && insertConnection(newConnection(fromId, toId, distance))) operations++;
+        }
+
+        public void removeOblast(String oblastId) {
+            if (checkOpen() && applyRemoveOblast(oblastId)) operations++;
+        }
+
+        public void removeConnection(String fromId, String toId) {
+            if (checkOpen() && applyRemoveConnection(fromId, toId)) operations++;
+        }
+
+        public void destroyConnection(String fromId, String toId) {
+            if (checkOpen() && applyDestroyConnection(fromId, toId)) operations++;
+        }
+
+        public void damageConnection(String fromId, String toId, double damagePercent) {
+            if (checkOpen() && applyDamageConnection(fromId, toId, damagePercent)) operations++;
+        }
+
+        public void destroyOblast(String oblastId) {
+            if (checkOpen() && applyDestroyOblast(oblastId)) operations++;
+        }
+
+        public void restoreOblast(String oblastId) {
+            if (checkOpen() && applyRestoreOblast(oblastId)) operations++;
+        }
+
+        public void repairAllConnections() {
+            if (checkOpen() && applyRepairAllConnections()) operations++;
+        }
+
+        private boolean checkOpen() {
+            if (!open) {
+                throw new IllegalStateException("Lote já publicado");
             }
-            rebuildAdjacencyMatrix();
+            return true;
+        }
+    }
+
+    // ========== PUBLICAÇÃO ==========
+
+    /**
+     * Após uma modificação: nova versão (chamado com o lock de escrita).
+     * Sem observadores a fotografia só é construída no próximo getSnapshot()
+     */
+    private void markModified() {
+        version++;
+        if (!listeners.isEmpty()) {
+            publish(1);
+        }
+    }
+
+    /**
+     * Constrói e publica a fotografia da versão atual e notifica os
+     * observadores com as alterações desde a última fotografia construída
+     */
+    private ChangeSet publish(int operations) {
+        GraphSnapshot after = new GraphSnapshot(this, version);
+        GraphSnapshot before = snapshot.getAndSet(after);
+
+        ChangeSet changes = new ChangeSet(before, after, Set.copyOf(pendingConnections),
+                Set.copyOf(pendingOblastIds), operations);
+        pendingConnections.clear();
+        pendingOblastIds.clear();
+
+        for (ChangeListener listener : listeners) {
+            listener.graphChanged(changes);
+        }
+        return changes;
+    }
+
+    /**
+     * Regista um observador notificado após cada modificação publicada
+     */
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Versão do grafo (muda a cada modificação estrutural ou de estado)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    // ========== FOTOGRAFIA CSR ==========
+
+    /**
+     * Retorna a fotografia CSR da versão atual. Só bloqueia na primeira
+     * leitura depois de uma modificação, que constrói a fotografia; a
+     * fotografia é imutável e modificações posteriores criam uma nova.
+     */
+    public GraphSnapshot getSnapshot() {
+        GraphSnapshot current = snapshot.get();
+        if (current.getVersion() == version) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot.get();
+            if (current.getVersion() != version) {
+                current = new GraphSnapshot(this, version);
+                snapshot.set(current);
+                pendingConnections.clear();
+                pendingOblastIds.clear();
+            }
+            return current;
         }
     }
 
     // ========== MÉTODOS GETTERS ==========
 
-    public double[][] getAdjacencyMatrix() {
-        return adjacencyMatrix;
+    /**
+     * Constrói a matriz de adjacência [i][j] = {@link #getDistance(int, int)}
+     * (getNodeCount() x getNodeCount()). Custa O(V²) em tempo e memória a
+     * cada chamada: só para apresentação de grafos pequenos.
+     */
+    public synchronized double[][] getAdjacencyMatrix() {
+        double[][] matrix = new double[nodeCount][nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            for (int j = 0; j < nodeCount; j++) {
+                matrix[i][j] = getDistance(i, j);
+            }
+        }
+        return matrix;
     }
 
     public Map<String, List<Connection>> getAdjacencyList() {
@@ -309,8 +762,17 @@ public class Graph {
         return idToIndex;
     }
 
+    /**
+     * Cópia do mapeamento índice -> id (preferir {@link #getId(int)})
+     */
     public Map<Integer, String> getIndexToId() {
-        return indexToId;
+        Map<Integer, String> map = new HashMap<>();
+        for (int i = 0; i < nodeCount; i++) {
+            if (indexToId[i] != null) {
+                map.put(i, indexToId[i]);
+            }
+        }
+        return map;
     }
 
     // ========== MÉTODOS DE IMPRESSÃO ==========
@@ -319,22 +781,26 @@ public class Graph {
      * Imprime a Matriz de Adjacência formatada
      */
     public void printAdjacencyMatrix() {
+        double[][] adjacencyMatrix = getAdjacencyMatrix();
         System.out.println("\n========== MATRIZ DE 1 ADJACÊNCIA ==========");
 
         // Cabeçalho
         System.out.print("        ");
         for (int i = 0; i < nodeCount; i++) {
-            String id = indexToId.get(i);
+            String id = indexToId[i];
+            if (id == null) continue; // Índice de Oblast removido
             System.out.printf("%-8s", id.substring(0, Math.min(6, id.length())));
         }
         System.out.println();
 
         // Linhas
         for (int i = 0; i < nodeCount; i++) {
-            String id = indexToId.get(i);
+            String id = indexToId[i];
+            if (id == null) continue;
             System.out.printf("%-8s", id.substring(0, Math.min(6, id.length())));
 
             for (int j = 0; j < nodeCount; j++) {
+                if (indexToId[j] == null) continue;
                 double dist = adjacencyMatrix[i][j];
                 if (dist == Double.POSITIVE_INFINITY) {
                     System.out.print("   ∞    ");
@@ -406,27 +872,33 @@ public class Graph {
     }
 
     /**
-     * Cria uma cópia do grafo
+     * Cria uma cópia independente do grafo (um único lote).
+     * Para cenários "e se" sem copiar nada, ver {@link GraphSnapshot#withoutEdges}.
      */
-    public Graph clone() {
+    public synchronized Graph clone() {
         Graph cloned = new Graph(this.isDirected);
 
-        // Copiar Oblasts
-        for (Oblast oblast : this.oblasts.values()) {
-            cloned.addOblast(oblast);
-        }
-
-        // Copiar Conexões
-        for (Connection conn : this.connections) {
-            Oblast from = cloned.getOblast(conn.getFrom().getId());
-            Oblast to = cloned.getOblast(conn.getTo().getId());
-            Connection newConn = new Connection(from, to,
-                    conn.getDistance(), conn.getRailwayType());
-            newConn.setCondition(conn.getCondition());
-            newConn.setDestroyed(conn.isDestroyed());
-            cloned.addConnection(newConn);
-        }
+        cloned.batch(mutator -> {
+            // Copiar Oblasts (pela ordem dos índices, para preservar o layout)
+            for (int i = 0; i < nodeCount; i++) {
+                if (indexToOblast[i] != null) {
+                    mutator.addOblast(indexToOblast[i]);
+                }
+            }
 
+            // Copiar Conexões
+            for (Connection conn : this.connections) {
+                Oblast from = cloned.getOblast(conn.getFrom().getId());
+                Oblast to = cloned.getOblast(conn.getTo().getId());
+                Connection newConn = new Connection(from, to,
+                        conn.getDistance(), conn.getRailwayType());
+                newConn.setCondition(conn.getCondition());
+                if (conn.isDestroyed()) {
+                    newConn.setDestroyed(true);
+                }
+                mutator.addConnection(newConn);
+            }
+        });
         return cloned;
     }
 
@@ -434,16 +906,13 @@ public class Graph {
      * Valida a integridade do grafo
      */
     public boolean validate() {
-        // Verificar se matriz e listas estão sincronizadas
+        // Verificar se o índice de conexões e as listas estão sincronizados
         for (Connection conn : connections) {
             String fromId = conn.getFrom().getId();
             String toId = conn.getTo().getId();
 
-            double matrixDist = getDistance(fromId, toId);
-            double connDist = conn.getDistance();
-
-            if (Math.abs(matrixDist - connDist) > 0.01 &&
-                    matrixDist != Double.POSITIVE_INFINITY) {
+            if (getConnection(fromId, toId) == null
+                    || (!isDirected && getConnection(toId, fromId) == null)) {
                 return false;
             }
         }
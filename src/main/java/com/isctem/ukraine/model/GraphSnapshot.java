@@ -0,0 +1,557 @@
+package com.isctem.ukraine.model;
+
+import java.util.*;
+
+/**
+ * Fotografia compacta (só de leitura) do grafo no formato CSR
+ * (Compressed Sparse Row).
+ *
+ * Os vértices são identificados por índices inteiros (os ids internados
+ * do {@link Graph}) e as arestas de saída do vértice u ocupam
+ * as posições [offsets[u], offsets[u + 1]) dos arrays targets/weights.
+ * Memória O(V + E) e percursos sem alocação de objetos.
+ *
+ * Fotografias são persistentes: {@link #withoutEdges} deriva um cenário
+ * que partilha todos os arrays e só copia as páginas de estado alteradas;
+ * {@link #withWeights} deriva uma vista com outra {@link WeightFunction}.
+ */
+public final class GraphSnapshot {
+    private final int nodeCount;
+    private final boolean isDirected;
+    private final long version;
+
+    // Vértices: índice -> id / Oblast (null se o índice foi removido).
+    // Tabelas internadas do Graph, partilhadas entre fotografias enquanto o
+    // conjunto de Oblasts não muda (podem ter posições além de nodeCount)
+    private final String[] ids;
+    private final Oblast[] oblasts;
+    private final Map<String, Integer> idToIndex;
+
+    // Arestas em formato CSR
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final Connection[] edgeConnections;
+    private final PersistentBitSet usable;
+
+    // Condição de cada linha no momento da publicação: as vistas derivam os
+    // pesos daqui e não do estado atual (mutável) das Conexões
+    private final double[] conditions;
+
+    // Estado de cada Oblast no momento da publicação (índice -> valor),
+    // pelo mesmo motivo: o Oblast é mutável
+    private final boolean[] frontline;
+    private final int[] supplyLevels;
+
+    // Função que produziu os pesos (DISTANCE nas fotografias do Graph)
+    private final WeightFunction weightFunction;
+
+    // Última vista com outra função de peso, construída sob demanda
+    private volatile GraphSnapshot weightedView;
+
+    // Grafo transposto (arestas invertidas), construído sob demanda
+    private volatile GraphSnapshot reversed;
+
+    // Menor razão peso/distância geodésica (NaN até ser calculada)
+    private volatile double geoScale = Double.NaN;
+
+    /**
+     * Fotografia de um grafo sem vértices (a primeira publicada por um
+     * {@link Graph} acabado de criar)
+     */
+    static GraphSnapshot empty(boolean isDirected) {
+        return new GraphSnapshot(isDirected);
+    }
+
+    private GraphSnapshot(boolean isDirected) {
+        this.nodeCount = 0;
+        this.isDirected = isDirected;
+        this.version = 0;
+        this.ids = new String[0];
+        this.oblasts = new Oblast[0];
+        this.idToIndex = Map.of();
+        this.offsets = new int[1];
+        this.targets = new int[0];
+        this.weights = new double[0];
+        this.edgeConnections = new Connection[0];
+        this.conditions = new double[0];
+        this.frontline = new boolean[0];
+        this.supplyLevels = new int[0];
+        this.usable = new PersistentBitSet(0);
+        this.weightFunction = WeightFunction.DISTANCE;
+    }
+
+    /**
+     * Constrói a fotografia a partir do estado atual do grafo
+     * (chamado pelo {@link Graph} com o lock de escrita)
+     */
+    GraphSnapshot(Graph graph, long version) {
+        this.nodeCount = graph.getNodeCount();
+        this.isDirected = graph.isDirected();
+        this.version = version;
+        this.ids = graph.internedIds();
+        this.oblasts = graph.internedOblasts();
+        this.idToIndex = graph.internedIndex();
+        this.offsets = new int[nodeCount + 1];
+        this.frontline = new boolean[nodeCount];
+        this.supplyLevels = new int[nodeCount];
+        this.weightFunction = WeightFunction.DISTANCE;
+
+        Map<String, List<Connection>> adjacencyList = graph.getAdjacencyList();
+
+        // 1. Vértices (estado e contagem de arestas por vértice)
+        int edgeCount = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i] = edgeCount;
+            if (oblasts[i] != null) {
+                frontline[i] = oblasts[i].isFrontline();
+                supplyLevels[i] = oblasts[i].getSupplyLevel();
+                edgeCount += adjacencyList.get(ids[i]).size();
+            }
+        }
+        offsets[nodeCount] = edgeCount;
+
+        this.targets = new int[edgeCount];
+        this.weights = new double[edgeCount];
+        this.edgeConnections = new Connection[edgeCount];
+        this.conditions = new double[edgeCount];
+        this.usable = new PersistentBitSet(edgeCount);
+
+        // 2. Preencher arestas a partir de cada Conexão (mantém a ordem da
+        // lista de adjacência; arestas paralelas guardam o próprio peso)
+        int e = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            if (oblasts[i] == null) continue;
+
+            for (Connection conn : adjacencyList.get(ids[i])) {
+                targets[e] = idToIndex.get(conn.getTo().getId());
+                weights[e] = conn.getDistance();
+                edgeConnections[e] = conn;
+                conditions[e] = conn.getCondition();
+                if (conn.isUsable()) {
+                    usable.set(e);
+                }
+                e++;
+            }
+        }
+    }
+
+    /**
+     * Constrói o transposto de uma fotografia (mesmos índices de vértices)
+     */
+    private GraphSnapshot(GraphSnapshot forward) {
+        this.nodeCount = forward.nodeCount;
+        this.isDirected = forward.isDirected;
+        this.version = forward.version;
+        this.ids = forward.ids;
+        this.oblasts = forward.oblasts;
+        this.idToIndex = forward.idToIndex;
+        this.offsets = new int[nodeCount + 1];
+        this.frontline = forward.frontline;
+        this.supplyLevels = forward.supplyLevels;
+        this.weightFunction = forward.weightFunction;
+
+        int edgeCount = forward.targets.length;
+        this.targets = new int[edgeCount];
+        this.weights = new double[edgeCount];
+        this.edgeConnections = new Connection[edgeCount];
+        this.conditions = new double[edgeCount];
+        this.usable = new PersistentBitSet(edgeCount);
+        this.reversed = forward;
+
+        // Contagem de arestas de entrada por vértice
+        for (int e = 0; e < edgeCount; e++) {
+            offsets[forward.targets[e] + 1]++;
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] next = Arrays.copyOf(offsets, nodeCount);
+        for (int u = 0; u < nodeCount; u++) {
+            for (int e = forward.offsets[u]; e < forward.offsets[u + 1]; e++) {
+                int slot = next[forward.targets[e]]++;
+                targets[slot] = u;
+                weights[slot] = forward.weights[e];
+                edgeConnections[slot] = forward.edgeConnections[e];
+                conditions[slot] = forward.conditions[e];
+                if (forward.usable.get(e)) {
+                    usable.set(slot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cenário derivado: mesmos vértices/arestas/pesos, outro estado de utilização
+     */
+    private GraphSnapshot(GraphSnapshot base, PersistentBitSet usable) {
+        this.nodeCount = base.nodeCount;
+        this.isDirected = base.isDirected;
+        this.version = base.version;
+        this.ids = base.ids;
+        this.oblasts = base.oblasts;
+        this.idToIndex = base.idToIndex;
+        this.offsets = base.offsets;
+        this.targets = base.targets;
+        this.weights = base.weights;
+        this.edgeConnections = base.edgeConnections;
+        this.conditions = base.conditions;
+        this.frontline = base.frontline;
+        this.supplyLevels = base.supplyLevels;
+        this.usable = usable;
+        this.weightFunction = base.weightFunction;
+        // Menos arestas só aumentam a razão mínima: o fator da base continua admissível
+        this.geoScale = base.geoScale;
+    }
+
+    /**
+     * Deriva um cenário em que as arestas indicadas (e, em grafos
+     * não-direcionados, as respetivas inversas) ficam inutilizáveis.
+     * Não altera esta fotografia nem o {@link Graph}; custa
+     * O(arestas alteradas), não O(V + E). A versão é a da fotografia base.
+     */
+    public GraphSnapshot withoutEdges(int[] edges) {
+        int[] changed = edges;
+        if (!isDirected) {
+            changed = Arrays.copyOf(edges, edges.length * 2);
+            int count = edges.length;
+            for (int edge : edges) {
+                int reverse = findEdge(targets[edge], sourceOf(edge));
+                if (reverse >= 0) {
+                    changed[count++] = reverse;
+                }
+            }
+            changed = Arrays.copyOf(changed, count);
+        }
+        return new GraphSnapshot(this, usable.with(changed, false));
+    }
+
+    /**
+     * Mesma topologia e utilização com os pesos recalculados pela função:
+     * arestas cujo peso seja infinito ficam inutilizáveis
+     */
+    private GraphSnapshot(GraphSnapshot base, WeightFunction function) {
+        this.nodeCount = base.nodeCount;
+        this.isDirected = base.isDirected;
+        this.version = base.version;
+        this.ids = base.ids;
+        this.oblasts = base.oblasts;
+        this.idToIndex = base.idToIndex;
+        this.offsets = base.offsets;
+        this.targets = base.targets;
+        this.edgeConnections = base.edgeConnections;
+        this.conditions = base.conditions;
+        this.frontline = base.frontline;
+        this.supplyLevels = base.supplyLevels;
+        this.weightFunction = function;
+
+        int edgeCount = targets.length;
+        this.weights = new double[edgeCount];
+        int[] unusable = new int[edgeCount];
+        int unusableCount = 0;
+        for (int u = 0; u < nodeCount; u++) {
+            double sourcePenalty = function.endpointPenalty(frontline[u], supplyLevels[u]);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                weights[e] = function.weight(edgeConnections[e], conditions[e])
+                        + sourcePenalty + function.endpointPenalty(frontline[v], supplyLevels[v]);
+                if (weights[e] == Double.POSITIVE_INFINITY && base.usable.get(e)) {
+                    unusable[unusableCount++] = e;
+                }
+            }
+        }
+        this.usable = unusableCount == 0
+                ? base.usable
+                : base.usable.with(Arrays.copyOf(unusable, unusableCount), false);
+    }
+
+    /**
+     * Vista desta fotografia com outra função de peso. Os pesos são
+     * calculados uma vez (do estado registado na publicação) e a vista é
+     * reutilizada enquanto for pedida a mesma função, pelo que os
+     * algoritmos e pré-processamentos que comparam fotografias por
+     * identidade continuam a funcionar.
+     */
+    public GraphSnapshot withWeights(WeightFunction function) {
+        if (function == weightFunction) {
+            return this;
+        }
+        GraphSnapshot view = weightedView;
+        if (view == null || view.weightFunction != function) {
+            view = new GraphSnapshot(this, function);
+            weightedView = view;
+        }
+        return view;
+    }
+
+    /**
+     * Retorna o grafo transposto (para buscas no sentido inverso).
+     * Em grafos não-direcionados é a própria fotografia.
+     */
+    public GraphSnapshot reversed() {
+        if (!isDirected) {
+            return this;
+        }
+        GraphSnapshot result = reversed;
+        if (result == null) {
+            result = new GraphSnapshot(this);
+            reversed = result;
+        }
+        return result;
+    }
+
+    // ========== VÉRTICES ==========
+
+    /**
+     * Número de índices de vértices (inclui índices de Oblasts removidos)
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public boolean isDirected() {
+        return isDirected;
+    }
+
+    /**
+     * Versão do grafo ({@link Graph#getVersion()}) de que esta fotografia foi tirada
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public WeightFunction getWeightFunction() {
+        return weightFunction;
+    }
+
+    /**
+     * Retorna o índice de um Oblast, ou -1 se não existir
+     */
+    public int indexOf(String oblastId) {
+        Integer index = idToIndex.get(oblastId);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Verifica se o índice corresponde a um Oblast existente
+     */
+    public boolean hasNode(int index) {
+        return oblasts[index] != null;
+    }
+
+    public String getId(int index) {
+        return ids[index];
+    }
+
+    public Oblast getOblast(int index) {
+        return oblasts[index];
+    }
+
+    /**
+     * Oblast na frente de batalha no momento da publicação
+     */
+    public boolean isFrontline(int index) {
+        return frontline[index];
+    }
+
+    /**
+     * Nível de abastecimento (0-100) do Oblast no momento da publicação
+     */
+    public int getSupplyLevel(int index) {
+        return supplyLevels[index];
+    }
+
+    // ========== ARESTAS ==========
+
+    /**
+     * Número total de posições de arestas
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Primeira aresta de saída do vértice
+     */
+    public int firstEdge(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * Posição seguinte à última aresta de saída do vértice
+     */
+    public int endEdge(int node) {
+        return offsets[node + 1];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    public double getWeight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * Verifica se a aresta pode ser percorrida (não destruída)
+     */
+    public boolean isUsable(int edge) {
+        return usable.get(edge);
+    }
+
+    public Connection getConnection(int edge) {
+        return edgeConnections[edge];
+    }
+
+    /**
+     * Condição (0-100) da linha da aresta no momento da publicação
+     */
+    public double getCondition(int edge) {
+        return conditions[edge];
+    }
+
+    // ========== VIZINHANÇA ==========
+
+    /**
+     * Visitante de vizinhos: vértice destino, peso e posição da aresta
+     */
+    @FunctionalInterface
+    public interface NeighborVisitor {
+        void visit(int target, double weight, int edge);
+    }
+
+    /**
+     * Percorre as arestas utilizáveis do vértice sem alocar. Nos ciclos
+     * críticos os algoritmos leem diretamente firstEdge/endEdge/getTarget.
+     */
+    public void forEachNeighbor(int node, NeighborVisitor visitor) {
+        for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+            if (usable.get(e)) {
+                visitor.visit(targets[e], weights[e], e);
+            }
+        }
+    }
+
+    /**
+     * Número de arestas utilizáveis que saem do vértice
+     */
+    public int degree(int node) {
+        int count = 0;
+        for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+            if (usable.get(e)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Verifica se as duas fotografias têm os mesmos vértices e as mesmas
+     * posições de arestas (só pesos/usabilidade podem diferir), ou seja,
+     * se índices de vértices e de arestas são comparáveis entre elas.
+     */
+    public boolean hasSameLayout(GraphSnapshot other) {
+        if (offsets == other.offsets && targets == other.targets && ids == other.ids) {
+            return true;
+        }
+        return nodeCount == other.nodeCount
+                && Arrays.equals(offsets, other.offsets)
+                && Arrays.equals(targets, other.targets)
+                && Arrays.equals(ids, 0, nodeCount, other.ids, 0, nodeCount);
+    }
+
+    /**
+     * Primeira aresta from -> to (utilizável ou não), ou -1 se não existir
+     */
+    public int findEdge(int from, int to) {
+        for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+            if (targets[e] == to) return e;
+        }
+        return -1;
+    }
+
+    /**
+     * Vértice de origem de uma aresta (busca binária nos offsets)
+     */
+    public int sourceOf(int edge) {
+        int lo = 0;
+        int hi = nodeCount - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (offsets[mid] <= edge) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Fator que torna a distância geodésica (Haversine) um limite inferior
+     * do peso real: min(peso / geodésica) sobre as arestas utilizáveis,
+     * limitado a 1. Algumas linhas têm peso menor que a geodésica entre os
+     * centros dos Oblasts, por isso a geodésica pura não é admissível.
+     */
+    public double getGeoScale() {
+        double scale = geoScale;
+        if (Double.isNaN(scale)) {
+            scale = 1.0;
+            for (int u = 0; u < nodeCount; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    if (!usable.get(e)) continue;
+                    double geodesic = oblasts[u].distanceTo(oblasts[targets[e]]);
+                    if (geodesic > 0) {
+                        scale = Math.min(scale, weights[e] / geodesic);
+                    }
+                }
+            }
+            geoScale = scale;
+        }
+        return scale;
+    }
+
+    /**
+     * Reconstrói o caminho a partir do array de pais
+     */
+    public List<Oblast> buildPath(int[] parent, int endIndex) {
+        List<Oblast> path = new ArrayList<>();
+        for (int current = endIndex; current != -1; current = parent[current]) {
+            path.add(oblasts[current]);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Comprimento real (km) de um caminho: soma das distâncias das Conexões
+     * percorridas, independente da função de peso. Entre dois Oblasts
+     * seguidos conta a aresta utilizável de menor peso (a que as buscas
+     * escolhem); pares sem aresta não contam.
+     */
+    public double pathDistance(List<Oblast> path) {
+        double distance = 0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            int from = indexOf(path.get(i).getId());
+            int to = indexOf(path.get(i + 1).getId());
+            if (from < 0 || to < 0) continue;
+
+            int best = -1;
+            for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+                if (targets[e] != to) continue;
+                if (best < 0 || (usable.get(e) && (!usable.get(best) || weights[e] < weights[best]))) {
+                    best = e;
+                }
+            }
+            if (best >= 0) {
+                distance += edgeConnections[best].getDistance();
+            }
+        }
+        return distance;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GraphSnapshot{nodes=%d, edges=%d, usable=%d}",
+                nodeCount, targets.length, usable.cardinality());
+    }
+}
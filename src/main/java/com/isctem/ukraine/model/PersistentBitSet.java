@@ -0,0 +1,71 @@
+package com.isctem.ukraine.model;
+
+/**
+ * Conjunto de bits persistente (imutável após construção) dividido em páginas.
+ *
+ * {@link #with} devolve uma nova versão que partilha todas as páginas não
+ * alteradas: custa O(páginas + bits alterados) em vez de O(tamanho), o que
+ * permite derivar cenários de uma fotografia sem copiar os seus arrays.
+ */
+final class PersistentBitSet {
+    // 64 longs por página = 4096 bits
+    private static final int PAGE_SHIFT = 12;
+    private static final int WORDS_PER_PAGE = 1 << (PAGE_SHIFT - 6);
+
+    private final long[][] pages;
+
+    PersistentBitSet(int size) {
+        this.pages = new long[(size + (1 << PAGE_SHIFT) - 1) >>> PAGE_SHIFT][];
+        for (int p = 0; p < pages.length; p++) {
+            pages[p] = new long[WORDS_PER_PAGE];
+        }
+    }
+
+    private PersistentBitSet(long[][] pages) {
+        this.pages = pages;
+    }
+
+    /**
+     * Só durante a construção (antes de a instância ser partilhada)
+     */
+    void set(int index) {
+        pages[index >>> PAGE_SHIFT][(index >>> 6) & (WORDS_PER_PAGE - 1)] |= 1L << index;
+    }
+
+    boolean get(int index) {
+        return (pages[index >>> PAGE_SHIFT][(index >>> 6) & (WORDS_PER_PAGE - 1)] & (1L << index)) != 0;
+    }
+
+    /**
+     * Nova versão com os bits indicados definidos para value (cópia só das páginas tocadas)
+     */
+    PersistentBitSet with(int[] indices, boolean value) {
+        long[][] copy = pages.clone();
+        boolean[] copied = new boolean[pages.length];
+
+        for (int index : indices) {
+            int p = index >>> PAGE_SHIFT;
+            if (!copied[p]) {
+                copy[p] = pages[p].clone();
+                copied[p] = true;
+            }
+            int word = (index >>> 6) & (WORDS_PER_PAGE - 1);
+            if (value) {
+                copy[p][word] |= 1L << index;
+            } else {
+                copy[p][word] &= ~(1L << index);
+            }
+        }
+        return new PersistentBitSet(copy);
+    }
+
+    int cardinality() {
+        int count = 0;
+        for (long[] page : pages) {
+            for (long word : page) {
+                count += Long.bitCount(word);
+            }
+        }
+        return count;
+    }
+}
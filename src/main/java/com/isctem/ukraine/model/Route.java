@@ -6,11 +6,16 @@ import java.util.List;
 /**
  * Representa uma rota calculada entre Oblasts.
  * Usada para armazenar resultados de algoritmos de busca.
+ *
+ * totalDistance é sempre o comprimento real em km; totalCost é o valor que
+ * o algoritmo minimizou segundo a {@link WeightFunction} (km, horas ou km
+ * equivalentes) e coincide com a distância quando não é indicado.
  */
 public class Route {
     private final List<Oblast> path;
     private final List<Connection> connections;
     private final double totalDistance;
+    private final double totalCost;
     private final String algorithmUsed;
     private final long computationTimeMs;
     private final boolean isOptimal;
@@ -19,16 +24,27 @@ public class Route {
      * Construtor completo
      */
     public Route(List<Oblast> path, List<Connection> connections,
-                 double totalDistance, String algorithmUsed,
+                 double totalDistance, double totalCost, String algorithmUsed,
                  long computationTimeMs, boolean isOptimal) {
         this.path = new ArrayList<>(path);
         this.connections = new ArrayList<>(connections);
         this.totalDistance = totalDistance;
+        this.totalCost = totalCost;
         this.algorithmUsed = algorithmUsed;
         this.computationTimeMs = computationTimeMs;
         this.isOptimal = isOptimal;
     }
 
+    /**
+     * Construtor com custo igual à distância
+     */
+    public Route(List<Oblast> path, List<Connection> connections,
+                 double totalDistance, String algorithmUsed,
+                 long computationTimeMs, boolean isOptimal) {
+        this(path, connections, totalDistance, totalDistance, algorithmUsed,
+                computationTimeMs, isOptimal);
+    }
+
     /**
      * Construtor simplificado
      */
@@ -45,10 +61,27 @@ public class Route {
         return new ArrayList<>(connections);
     }
 
+    /**
+     * Comprimento real da rota em km
+     */
     public double getTotalDistance() {
         return totalDistance;
     }
 
+    /**
+     * Custo minimizado pelo algoritmo (unidades da função de peso)
+     */
+    public double getTotalCost() {
+        return totalCost;
+    }
+
+    /**
+     * true se o custo foi calculado com uma função de peso diferente da distância
+     */
+    public boolean hasDistinctCost() {
+        return Math.abs(totalCost - totalDistance) > 1e-9;
+    }
+
     public String getAlgorithmUsed() {
         return algorithmUsed;
     }
@@ -160,10 +193,10 @@ public class Route {
     }
 
     /**
-     * Compara esta rota com outra
+     * Compara esta rota com outra (pelo custo minimizado)
      */
     public int compareTo(Route other) {
-        return Double.compare(this.totalDistance, other.totalDistance);
+        return Double.compare(this.totalCost, other.totalCost);
     }
 
     /**
@@ -197,6 +230,7 @@ public class Route {
         private List<Oblast> path = new ArrayList<>();
         private List<Connection> connections = new ArrayList<>();
         private double totalDistance = 0;
+        private double totalCost = Double.NaN;
         private String algorithmUsed = "UNKNOWN";
         private long computationTimeMs = 0;
         private boolean isOptimal = false;
@@ -222,6 +256,14 @@ public class Route {
             return this;
         }
 
+        /**
+         * Custo minimizado (se omitido, igual à distância)
+         */
+        public Builder setTotalCost(double cost) {
+            this.totalCost = cost;
+            return this;
+        }
+
         public Builder setAlgorithm(String algorithm) {
             this.algorithmUsed = algorithm;
             return this;
@@ -239,6 +281,7 @@ public class Route {
 
         public Route build() {
             return new Route(path, connections, totalDistance,
+                    Double.isNaN(totalCost) ? totalDistance : totalCost,
                     algorithmUsed, computationTimeMs, isOptimal);
         }
     }
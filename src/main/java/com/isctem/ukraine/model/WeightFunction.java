@@ -0,0 +1,83 @@
+package com.isctem.ukraine.model;
+
+/**
+ * Função de peso das arestas usada pelos algoritmos de caminho mínimo.
+ *
+ * Aplicada uma vez por aresta em {@link GraphSnapshot#withWeights}: os
+ * algoritmos continuam a ler um double[] e a escolha não custa nada no
+ * ciclo de relaxamento. Deve ser simétrica em grafos não-direcionados
+ * (as duas direções de uma linha podem ser Conexões distintas).
+ *
+ * Recebe a condição da linha e o estado dos Oblasts registados na
+ * fotografia: Conexões e Oblasts são mutáveis e o seu estado atual pode já
+ * não corresponder à fotografia.
+ */
+@FunctionalInterface
+public interface WeightFunction {
+
+    double weight(Connection connection, double condition);
+
+    /**
+     * Penalização somada ao peso por cada extremo da aresta, a partir do
+     * estado do Oblast na fotografia (nenhuma por omissão)
+     */
+    default double endpointPenalty(boolean frontline, int supplyLevel) {
+        return 0;
+    }
+
+    /**
+     * Distância em km (ignora a condição da linha)
+     */
+    WeightFunction DISTANCE = (connection, condition) -> connection.getDistance();
+
+    /**
+     * Distância agravada pela condição da linha ({@link Connection#getEffectiveWeight(double)})
+     */
+    WeightFunction EFFECTIVE = Connection::getEffectiveWeight;
+
+    /**
+     * Tempo de viagem em horas: peso efetivo / velocidade do tipo de via
+     */
+    WeightFunction TRAVEL_TIME = (connection, condition) ->
+            connection.getEffectiveWeight(condition) / speedOf(connection.getRailwayType());
+
+    /**
+     * Peso efetivo com penalização por extremo na frente de batalha ou com
+     * abastecimento crítico (mesmos critérios de RouteCalculator.calculateRouteCost)
+     */
+    WeightFunction RISK = new WeightFunction() {
+        @Override
+        public double weight(Connection connection, double condition) {
+            return connection.getEffectiveWeight(condition);
+        }
+
+        /**
+         * Metade da penalização por atravessar o Oblast (em km equivalentes):
+         * um Oblast intermédio conta nas duas arestas da rota
+         */
+        @Override
+        public double endpointPenalty(boolean frontline, int supplyLevel) {
+            double risk = 0;
+            if (frontline) {
+                risk += 50.0;
+            }
+            if (supplyLevel < 30) {
+                risk += 25.0;
+            }
+            return risk;
+        }
+    };
+
+    /**
+     * Velocidade média (km/h) por tipo de via
+     */
+    private static double speedOf(String railwayType) {
+        if (railwayType == null) return 60.0;
+        return switch (railwayType) {
+            case "HIGH_SPEED" -> 160.0;
+            case "ELECTRIFIED" -> 100.0;
+            case "STANDARD" -> 80.0;
+            default -> 60.0;
+        };
+    }
+}
@@ -4,24 +4,76 @@ import com.isctem.ukraine.algorithm.*;
 import com.isctem.ukraine.data.UkraineData;
 import com.isctem.ukraine.model.*;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 /**
  * Service principal que coordena todas as operações do grafo
  */
 public class GraphService {
 
-    private Graph graph;
-    private final Map<String, AlgorithmResult> cachedResults;
+    // Número de landmarks do ALT (hubs logísticos + farthest-point)
+    private static final int ALT_LANDMARK_COUNT = 8;
+
+    // Número máximo de resultados mantidos em cache (LRU)
+    private static final int CACHE_CAPACITY = 512;
+
+    // Número máximo de árvores de caminhos mínimos mantidas (LRU); cada uma
+    // custa O(E) a reparar por modificação, com o lock do grafo
+    private static final int SHORTEST_PATH_TREE_CAPACITY = 16;
+
+    // Restrições padrão do comboio: alcance (km) entre reabastecimentos em
+    // Oblasts com abastecimento >= limiar, sem limite de saltos
+    public static final ResourceConstrainedPath.Constraints DEFAULT_CONVOY_CONSTRAINTS =
+            new ResourceConstrainedPath.Constraints(400.0, 50, 0);
+
+    // Tempo máximo de otimização de tours com várias paragens
+    public static final Duration TOUR_OPTIMIZATION_BUDGET = Duration.ofMillis(50);
+
+    // Maior grafo para o qual se mantém a tabela de todos os pares (memória O(V²))
+    public static final int DISTANCE_TABLE_MAX_NODES = 2048;
+
+    // Tempo máximo por algoritmo na execução concorrente
+    public static final Duration DEFAULT_ALGORITHM_TIMEOUT = Duration.ofSeconds(5);
+
+    private volatile Graph graph;
+    private final ResultCache cache;
+
+    // Pesos usados por todos os algoritmos (aplicados a cada fotografia publicada)
+    private volatile WeightFunction weightFunction = WeightFunction.EFFECTIVE;
+
+    // Pré-processamento ALT reutilizado entre consultas (instâncias imutáveis)
+    private volatile Landmarks landmarks;
+
+    // Hierarquia de contração da última fotografia (reconstruída quando a rede muda)
+    private volatile ContractionHierarchy contractionHierarchy;
+
+    // Distâncias entre todos os pares (só grafos pequenos, ver getDistanceTable)
+    private volatile AllPairsShortestPaths distanceTable;
+
+    // Árvores de caminhos mínimos por origem, reparadas a cada modificação do
+    // grafo (protegidas por this). As despejadas deixam de ser observadores
+    private final Map<String, DynamicShortestPathTree> shortestPathTrees = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DynamicShortestPathTree> eldest) {
+            if (size() > SHORTEST_PATH_TREE_CAPACITY) {
+                graph.removeChangeListener(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
 
     public GraphService() {
-        this.cachedResults = new HashMap<>();
+        this.cache = new ResultCache(CACHE_CAPACITY);
         this.graph = UkraineData.createUkraineGraph();
     }
 
     public GraphService(Graph graph) {
         this.graph = graph;
-        this.cachedResults = new HashMap<>();
+        this.cache = new ResultCache(CACHE_CAPACITY);
     }
 
     // ========== GESTÃO DO GRAFO ==========
@@ -30,40 +82,91 @@ public class GraphService {
         return graph;
     }
 
-    public void resetGraph() {
+    public synchronized void resetGraph() {
+        detachShortestPathTrees();
         this.graph = UkraineData.createUkraineGraph();
+        this.landmarks = null;
+        this.contractionHierarchy = null;
+        this.distanceTable = null;
         clearCache();
     }
 
-    public void setGraph(Graph graph) {
+    public synchronized void setGraph(Graph graph) {
+        detachShortestPathTrees();
         this.graph = graph;
+        this.landmarks = null;
+        this.contractionHierarchy = null;
+        this.distanceTable = null;
+        clearCache();
+    }
+
+    public WeightFunction getWeightFunction() {
+        return weightFunction;
+    }
+
+    /**
+     * Troca a função de peso (ex.: tempo de viagem em vez de distância).
+     * Pré-processamentos e resultados em cache da função anterior são descartados.
+     */
+    public synchronized void setWeightFunction(WeightFunction weightFunction) {
+        detachShortestPathTrees();
+        this.weightFunction = weightFunction;
+        this.landmarks = null;
+        this.contractionHierarchy = null;
+        this.distanceTable = null;
         clearCache();
     }
 
+    /**
+     * Fotografia atual do grafo com os pesos da função em uso
+     */
+    private GraphSnapshot currentSnapshot() {
+        return graph.getSnapshot().withWeights(weightFunction);
+    }
+
     // ========== EXECUÇÃO DE ALGORITMOS ==========
 
     /**
      * Executa um algoritmo específico
      */
     public AlgorithmResult executeAlgorithm(AlgorithmType type, String startId, String endId) {
-        String cacheKey = type + "-" + startId + "-" + endId;
+        GraphSnapshot snapshot = currentSnapshot();
+        ResultCache.Key cacheKey = new ResultCache.Key(type, startId, endId);
 
-        if (cachedResults.containsKey(cacheKey)) {
-            return cachedResults.get(cacheKey);
+        AlgorithmResult cached = cache.get(cacheKey, snapshot.getVersion());
+        if (cached != null) {
+            return cached;
         }
 
-        AlgorithmResult result = switch (type) {
-            case BFS -> BFS.execute(graph, startId, endId);
-            case DFS -> DFS.execute(graph, startId, endId);
-            case DIJKSTRA -> Dijkstra.execute(graph, startId, endId);
-            case KRUSKAL -> Kruskal.execute(graph);
-            case PRIM -> Prim.execute(graph, startId);
-        };
+        AlgorithmResult result = runAlgorithm(type, snapshot, startId, endId,
+                type == AlgorithmType.ALT ? landmarksFor(snapshot) : null,
+                type == AlgorithmType.CONTRACTION_HIERARCHIES ? hierarchyFor(snapshot) : null);
 
-        cachedResults.put(cacheKey, result);
+        cache.put(cacheKey, snapshot.getVersion(), result, dependenciesOf(type, result, snapshot));
         return result;
     }
 
+    /**
+     * Executa um algoritmo sobre uma fotografia imutável (seguro em qualquer thread)
+     */
+    private static AlgorithmResult runAlgorithm(AlgorithmType type, GraphSnapshot snapshot,
+                                                String startId, String endId,
+                                                Landmarks landmarks, ContractionHierarchy hierarchy) {
+        return switch (type) {
+            case BFS -> BFS.execute(snapshot, startId, endId);
+            case DFS -> DFS.execute(snapshot, startId, endId);
+            case DIJKSTRA -> Dijkstra.execute(snapshot, startId, endId);
+            case BIDIRECTIONAL_DIJKSTRA -> BidirectionalDijkstra.execute(snapshot, startId, endId);
+            case ASTAR -> AStar.execute(snapshot, startId, endId);
+            case ALT -> ALT.execute(snapshot, landmarks, startId, endId);
+            case CONTRACTION_HIERARCHIES -> hierarchy.query(startId, endId);
+            case RESOURCE_CONSTRAINED -> ResourceConstrainedPath.execute(snapshot, startId, endId,
+                    DEFAULT_CONVOY_CONSTRAINTS);
+            case KRUSKAL -> Kruskal.execute(snapshot);
+            case PRIM -> Prim.execute(snapshot, startId);
+        };
+    }
+
     /**
      * Executa TODOS os algoritmos e compara
      */
@@ -73,12 +176,130 @@ public class GraphService {
         results.put(AlgorithmType.BFS, executeAlgorithm(AlgorithmType.BFS, startId, endId));
         results.put(AlgorithmType.DFS, executeAlgorithm(AlgorithmType.DFS, startId, endId));
         results.put(AlgorithmType.DIJKSTRA, executeAlgorithm(AlgorithmType.DIJKSTRA, startId, endId));
+        results.put(AlgorithmType.BIDIRECTIONAL_DIJKSTRA,
+                executeAlgorithm(AlgorithmType.BIDIRECTIONAL_DIJKSTRA, startId, endId));
+        results.put(AlgorithmType.ASTAR, executeAlgorithm(AlgorithmType.ASTAR, startId, endId));
+        results.put(AlgorithmType.ALT, executeAlgorithm(AlgorithmType.ALT, startId, endId));
+        results.put(AlgorithmType.CONTRACTION_HIERARCHIES,
+                executeAlgorithm(AlgorithmType.CONTRACTION_HIERARCHIES, startId, endId));
+        results.put(AlgorithmType.RESOURCE_CONSTRAINED,
+                executeAlgorithm(AlgorithmType.RESOURCE_CONSTRAINED, startId, endId));
         results.put(AlgorithmType.KRUSKAL, executeAlgorithm(AlgorithmType.KRUSKAL, startId, endId));
         results.put(AlgorithmType.PRIM, executeAlgorithm(AlgorithmType.PRIM, startId, endId));
 
         return results;
     }
 
+    /**
+     * Executa todos os algoritmos sobre um cenário derivado da rede
+     * (ex.: {@link GraphSnapshot#withoutEdges}). Não usa o cache nem altera
+     * os pré-processamentos partilhados.
+     */
+    public Map<AlgorithmType, AlgorithmResult> executeAllAlgorithms(GraphSnapshot scenario,
+                                                                   String startId, String endId) {
+        scenario = scenario.withWeights(weightFunction);
+        Landmarks base = landmarks;
+        Landmarks scenarioLandmarks = base != null ? base.refresh(scenario) : null;
+        if (scenarioLandmarks == null) {
+            scenarioLandmarks = Landmarks.build(scenario, UkraineData.getLogisticsHubs(), ALT_LANDMARK_COUNT);
+        }
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(scenario);
+
+        Map<AlgorithmType, AlgorithmResult> results = new LinkedHashMap<>();
+        for (AlgorithmType type : AlgorithmType.values()) {
+            results.put(type, runAlgorithm(type, scenario, startId, endId, scenarioLandmarks, hierarchy));
+        }
+        return results;
+    }
+
+    /**
+     * Executa todos os algoritmos em paralelo com o tempo limite padrão
+     */
+    public Map<AlgorithmType, AlgorithmResult> executeAllAlgorithmsConcurrently(String startId, String endId) {
+        return executeAllAlgorithmsConcurrently(startId, endId, DEFAULT_ALGORITHM_TIMEOUT);
+    }
+
+    /**
+     * Executa todos os algoritmos em paralelo, um por virtual thread, sobre a
+     * mesma fotografia imutável do grafo. A latência total é a do algoritmo
+     * mais lento, incluindo os pré-processamentos (landmarks, hierarquia),
+     * que correm dentro da tarefa do respetivo algoritmo. Um algoritmo que
+     * excede o tempo limite devolve um resultado de erro: a sua thread é
+     * interrompida, os ciclos dos algoritmos param no próximo ponto de
+     * cancelamento e nada entra no cache.
+     */
+    public Map<AlgorithmType, AlgorithmResult> executeAllAlgorithmsConcurrently(String startId, String endId,
+                                                                                Duration timeout) {
+        GraphSnapshot snapshot = currentSnapshot();
+        long version = snapshot.getVersion();
+
+        Map<AlgorithmType, AlgorithmResult> results = new LinkedHashMap<>();
+        List<AlgorithmType> pending = new ArrayList<>();
+        for (AlgorithmType type : AlgorithmType.values()) {
+            AlgorithmResult cached = cache.get(new ResultCache.Key(type, startId, endId), version);
+            results.put(type, cached);
+            if (cached == null) {
+                pending.add(type);
+            }
+        }
+        if (pending.isEmpty()) {
+            return results;
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        Map<AlgorithmType, Future<AlgorithmResult>> futures = new EnumMap<>(AlgorithmType.class);
+        try {
+            for (AlgorithmType type : pending) {
+                futures.put(type, executor.submit(() -> {
+                    AlgorithmResult result = runAlgorithm(type, snapshot, startId, endId,
+                            type == AlgorithmType.ALT ? landmarksFor(snapshot) : null,
+                            type == AlgorithmType.CONTRACTION_HIERARCHIES ? hierarchyFor(snapshot) : null);
+                    // Resultados de tarefas canceladas ou fora do prazo não entram no cache
+                    if (!Thread.currentThread().isInterrupted() && System.nanoTime() < deadline) {
+                        cache.put(new ResultCache.Key(type, startId, endId), version, result,
+                                dependenciesOf(type, result, snapshot));
+                    }
+                    return result;
+                }));
+            }
+
+            for (Map.Entry<AlgorithmType, Future<AlgorithmResult>> entry : futures.entrySet()) {
+                results.put(entry.getKey(), awaitResult(entry.getKey(), entry.getValue(), deadline, timeout));
+            }
+        } finally {
+            // Não espera por tarefas que excederam o tempo limite
+            executor.shutdownNow();
+        }
+
+        return results;
+    }
+
+    private static AlgorithmResult awaitResult(AlgorithmType type, Future<AlgorithmResult> future,
+                                               long deadline, Duration timeout) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return new AlgorithmResult.Builder()
+                    .setAlgorithmName(type.getFullName())
+                    .setError("Tempo limite excedido (" + timeout.toMillis() + " ms)")
+                    .build();
+        } catch (ExecutionException e) {
+            return new AlgorithmResult.Builder()
+                    .setAlgorithmName(type.getFullName())
+                    .setError("Falha na execução: " + e.getCause())
+                    .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return new AlgorithmResult.Builder()
+                    .setAlgorithmName(type.getFullName())
+                    .setError("Execução interrompida")
+                    .build();
+        }
+    }
+
     /**
      * Encontra a melhor rota usando todos os algoritmos
      */
@@ -86,13 +307,13 @@ public class GraphService {
         Map<AlgorithmType, AlgorithmResult> allResults = executeAllAlgorithms(startId, endId);
 
         AlgorithmResult best = null;
-        double shortestDistance = Double.POSITIVE_INFINITY;
+        double lowestCost = Double.POSITIVE_INFINITY;
 
         for (AlgorithmResult result : allResults.values()) {
             if (result.isSuccess() && result.getMainRoute() != null) {
-                double distance = result.getMainRoute().getTotalDistance();
-                if (distance < shortestDistance) {
-                    shortestDistance = distance;
+                double cost = result.getMainRoute().getTotalCost();
+                if (cost < lowestCost) {
+                    lowestCost = cost;
                     best = result;
                 }
             }
@@ -101,45 +322,109 @@ public class GraphService {
         return best;
     }
 
+    /**
+     * Até k rotas simples entre dois Oblasts por ordem de distância (Yen).
+     * A primeira é a rota principal; as restantes são alternativas reais.
+     */
+    public AlgorithmResult findKShortestPaths(String startId, String endId, int k) {
+        return YenKShortestPaths.execute(currentSnapshot(), startId, endId, k);
+    }
+
+    /**
+     * Rota principal e rota de reserva disjuntas de custo total mínimo
+     * (nodeDisjoint = true: sem Oblasts intermédios em comum)
+     */
+    public AlgorithmResult findDisjointRoutes(String startId, String endId, boolean nodeDisjoint) {
+        return DisjointPaths.execute(currentSnapshot(), startId, endId, nodeDisjoint);
+    }
+
+    /**
+     * Frente de Pareto entre distância, Oblasts da frente atravessados e
+     * menor nível de abastecimento ao longo da rota
+     */
+    public AlgorithmResult findParetoRoutes(String startId, String endId) {
+        return ParetoRouteSearch.execute(currentSnapshot(), startId, endId,
+                ParetoRouteSearch.DEFAULT_MAX_LABELS_PER_NODE);
+    }
+
+    /**
+     * Rota mais curta para um comboio com alcance limitado entre
+     * reabastecimentos e, opcionalmente, um número máximo de saltos
+     */
+    public AlgorithmResult findConstrainedRoute(String startId, String endId,
+                                                ResourceConstrainedPath.Constraints constraints) {
+        return ResourceConstrainedPath.execute(currentSnapshot(), startId, endId, constraints);
+    }
+
     // ========== OPERAÇÕES DE SIMULAÇÃO ==========
 
     /**
      * Simula ataque russo destruindo conexões
      */
-    public void simulateRussianAttack(double destructionPercent) {
+    public synchronized void simulateRussianAttack(double destructionPercent) {
+        GraphSnapshot before = currentSnapshot();
         UkraineData.simulateWarDamage(graph, destructionPercent);
-        clearCache();
+        invalidateDamagedResults(before, List.of());
     }
 
     /**
      * Destrói Oblast específico
      */
-    public void destroyOblast(String oblastId) {
+    public synchronized void destroyOblast(String oblastId) {
+        GraphSnapshot before = currentSnapshot();
         graph.destroyOblast(oblastId);
-        clearCache();
+        invalidateDamagedResults(before, List.of(oblastId));
     }
 
     /**
      * Destrói conexão específica
      */
-    public void destroyConnection(String fromId, String toId) {
+    public synchronized void destroyConnection(String fromId, String toId) {
+        GraphSnapshot before = currentSnapshot();
         graph.destroyConnection(fromId, toId);
-        clearCache();
+        invalidateDamagedResults(before, List.of());
     }
 
     /**
-     * Repara todas as conexões destruídas
+     * Danifica conexão específica (condição reduzida, peso efetivo maior)
      */
-    public void repairAll() {
-        for (Connection conn : graph.getAllConnections()) {
-            conn.setDestroyed(false);
-            conn.setCondition(100);
-        }
-        for (Oblast oblast : graph.getAllOblasts()) {
-            oblast.setDestroyed(false);
-            oblast.setSupplyLevel(100);
+    public synchronized void damageConnection(String fromId, String toId, double damagePercent) {
+        GraphSnapshot before = currentSnapshot();
+        graph.damageConnection(fromId, toId, damagePercent);
+        invalidateDamagedResults(before, List.of());
+    }
+
+    /**
+     * Aplica várias modificações como um lote ({@link Graph#batch}): uma
+     * reconstrução da fotografia, uma notificação às árvores dinâmicas e uma
+     * invalidação do cache, independentemente do número de operações
+     */
+    public synchronized void applyBatch(Consumer<Graph.Mutator> changes) {
+        GraphSnapshot before = currentSnapshot();
+        Graph.ChangeSet published = null;
+        try {
+            published = graph.batch(changes);
+        } finally {
+            if (published != null) {
+                invalidateDamagedResults(before, published.oblastIds());
+            } else if (currentSnapshot() != before) {
+                // Lote interrompido por exceção, mas já publicado
+                clearCache();
+            }
         }
-        clearCache();
+    }
+
+    /**
+     * Repara todas as conexões destruídas e restaura todos os Oblasts
+     * (um único lote)
+     */
+    public synchronized void repairAll() {
+        applyBatch(mutator -> {
+            mutator.repairAllConnections();
+            for (Oblast oblast : graph.getAllOblasts()) {
+                mutator.restoreOblast(oblast.getId());
+            }
+        });
     }
 
     // ========== CONSULTAS E ANÁLISES ==========
@@ -177,7 +462,7 @@ public class GraphService {
      */
     public double calculateConnectivity() {
         int totalPossible = graph.getNodeCount() * (graph.getNodeCount() - 1) / 2;
-        int actualConnections = graph.getAllConnections().size();
+        int actualConnections = graph.getConnectionCount();
         return (double) actualConnections / totalPossible * 100;
     }
 
@@ -186,7 +471,7 @@ public class GraphService {
      */
     public Oblast getMostConnectedHub() {
         return graph.getAllOblasts().stream()
-                .max(Comparator.comparingInt(o -> graph.getNeighbors(o.getId()).size()))
+                .max(Comparator.comparingInt(o -> graph.getDegree(o.getId())))
                 .orElse(null);
     }
 
@@ -209,7 +494,7 @@ public class GraphService {
         int frontlineOblasts = (int) graph.getAllOblasts().stream()
                 .filter(Oblast::isFrontline).count();
 
-        int totalConnections = graph.getAllConnections().size();
+        int totalConnections = graph.getConnectionCount();
         int destroyedConnections = (int) graph.getAllConnections().stream()
                 .filter(Connection::isDestroyed).count();
 
@@ -248,63 +533,293 @@ public class GraphService {
         Oblast hub = getMostConnectedHub();
         String startId = hub != null ? hub.getId() : "kyiv";
 
-        // Usar Dijkstra para conectar todos os pontos críticos
-        List<Oblast> route = new ArrayList<>();
-        route.add(graph.getOblast(startId));
-
-        double totalDistance = 0;
-        String current = startId;
-
-        Set<String> visited = new HashSet<>();
-        visited.add(startId);
-
-        while (visited.size() < criticalOblasts.size() + 1) {
-            String nearest = findNearestUnvisited(current, criticalOblasts, visited);
-            if (nearest == null) break;
-
-            AlgorithmResult segment = Dijkstra.execute(graph, current, nearest);
-            if (segment.isSuccess()) {
-                route.addAll(segment.getMainRoute().getPath().subList(1,
-                        segment.getMainRoute().getPath().size()));
-                totalDistance += segment.getMainRoute().getTotalDistance();
-                current = nearest;
-                visited.add(nearest);
-            }
+        // Ordem de visita otimizada sobre as distâncias entre paragens
+        List<String> stops = new ArrayList<>();
+        for (Oblast oblast : criticalOblasts) {
+            stops.add(oblast.getId());
+        }
+        AlgorithmResult tour = TourOptimizer.execute(getStopDistances(startId, stops), TOUR_OPTIMIZATION_BUDGET);
+        if (!tour.isSuccess()) {
+            return tour;
         }
 
         Route finalRoute = new Route.Builder()
-                .setPath(route)
-                .setTotalDistance(totalDistance)
+                .setPath(tour.getMainRoute().getPath())
+                .setTotalDistance(tour.getMainRoute().getTotalDistance())
+                .setTotalCost(tour.getMainRoute().getTotalCost())
                 .setAlgorithm("Supply Route Optimizer")
+                .setComputationTime(tour.getExecutionTimeMs())
                 .setOptimal(false)
                 .build();
 
-        return new AlgorithmResult.Builder()
+        AlgorithmResult.Builder result = new AlgorithmResult.Builder()
                 .setAlgorithmName("Supply Route")
                 .setMainRoute(finalRoute)
+                .setExecutionTime(tour.getExecutionTimeMs());
+        tour.getMetadata().forEach(result::addMetadata);
+        return result
                 .addMetadata("critical_oblasts", criticalOblasts.size())
                 .build();
     }
 
-    private String findNearestUnvisited(String current, List<Oblast> targets, Set<String> visited) {
-        double minDist = Double.POSITIVE_INFINITY;
-        String nearest = null;
+    /**
+     * Distâncias e caminhos entre a origem e as paragens de um tour na
+     * fotografia atual. Em grafos até {@link #DISTANCE_TABLE_MAX_NODES}
+     * Oblasts são lidos da tabela de todos os pares (reutilizada entre
+     * chamadas); acima disso, um Dijkstra por paragem, em paralelo.
+     */
+    public StopDistanceMatrix getStopDistances(String startId, Collection<String> stopIds) {
+        GraphSnapshot snapshot = currentSnapshot();
+        if (snapshot.getNodeCount() <= DISTANCE_TABLE_MAX_NODES) {
+            return StopDistanceMatrix.fromTable(distanceTableFor(snapshot), startId, stopIds);
+        }
+        return StopDistanceMatrix.compute(snapshot, startId, stopIds);
+    }
 
-        for (Oblast target : targets) {
-            if (!visited.contains(target.getId())) {
-                double dist = graph.getDistance(current, target.getId());
-                if (dist < minDist) {
-                    minDist = dist;
-                    nearest = target.getId();
-                }
+    /**
+     * Retorna os landmarks do ALT sincronizados com o grafo atual.
+     * Construídos na primeira consulta; depois de destruições apenas os
+     * landmarks afetados são recalculados (ver {@link Landmarks#refresh}).
+     */
+    public Landmarks getLandmarks() {
+        return landmarksFor(currentSnapshot());
+    }
+
+    /**
+     * Landmarks sincronizados com uma fotografia específica. Sem bloqueio
+     * quando já estão atualizados; a sincronização é feita por uma thread de
+     * cada vez e só substitui a instância partilhada se for mais recente.
+     */
+    private Landmarks landmarksFor(GraphSnapshot snapshot) {
+        Landmarks current = landmarks;
+        if (current != null && current.getSnapshot() == snapshot) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = landmarks;
+            Landmarks synced = current != null ? current.refresh(snapshot) : null;
+            if (synced == null) {
+                synced = Landmarks.build(snapshot, UkraineData.getLogisticsHubs(), ALT_LANDMARK_COUNT);
             }
+            if (current == null || snapshot.getVersion() >= current.getSnapshot().getVersion()) {
+                landmarks = synced;
+            }
+            return synced;
         }
+    }
 
-        return nearest;
+    /**
+     * Retorna a hierarquia de contração da fotografia atual do grafo.
+     * A hierarquia é estática: qualquer alteração na rede gera uma nova
+     * fotografia e a hierarquia é reconstruída na consulta seguinte.
+     */
+    public ContractionHierarchy getContractionHierarchy() {
+        return hierarchyFor(currentSnapshot());
+    }
+
+    private ContractionHierarchy hierarchyFor(GraphSnapshot snapshot) {
+        ContractionHierarchy current = contractionHierarchy;
+        if (current != null && current.getSnapshot() == snapshot) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = contractionHierarchy;
+            if (current != null && current.getSnapshot() == snapshot) {
+                return current;
+            }
+            ContractionHierarchy built = ContractionHierarchy.build(snapshot);
+            if (current == null || snapshot.getVersion() >= current.getSnapshot().getVersion()) {
+                contractionHierarchy = built;
+            }
+            return built;
+        }
+    }
+
+    /**
+     * Retorna a tabela de distâncias entre todos os pares sincronizada com o
+     * grafo atual. Depois de alterações apenas as linhas afetadas são
+     * recalculadas (ver {@link AllPairsShortestPaths#refresh}).
+     *
+     * Só para grafos pequenos (até {@link #DISTANCE_TABLE_MAX_NODES}
+     * Oblasts): a tabela ocupa O(V²) e não serve de oráculo de distâncias
+     * partilhado; para consultas ponto a ponto usar os algoritmos ou a
+     * {@link #getContractionHierarchy() hierarquia de contração}.
+     */
+    public AllPairsShortestPaths getDistanceTable() {
+        return distanceTableFor(currentSnapshot());
+    }
+
+    private AllPairsShortestPaths distanceTableFor(GraphSnapshot snapshot) {
+        if (snapshot.getNodeCount() > DISTANCE_TABLE_MAX_NODES) {
+            throw new IllegalStateException("Grafo demasiado grande para a tabela de distâncias ("
+                    + snapshot.getNodeCount() + " > " + DISTANCE_TABLE_MAX_NODES + " Oblasts)");
+        }
+
+        AllPairsShortestPaths current = distanceTable;
+        if (current != null && current.getSnapshot() == snapshot) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = distanceTable;
+            AllPairsShortestPaths synced = current != null ? current.refresh(snapshot) : null;
+            if (synced == null) {
+                synced = AllPairsShortestPaths.compute(snapshot);
+            }
+            if (current == null || snapshot.getVersion() >= current.getSnapshot().getVersion()) {
+                distanceTable = synced;
+            }
+            return synced;
+        }
+    }
+
+    /**
+     * Retorna a árvore de caminhos mínimos a partir de um Oblast. Criada na
+     * primeira consulta e depois reparada incrementalmente pelas notificações
+     * do grafo (ver {@link DynamicShortestPathTree#update}). Só as
+     * {@value #SHORTEST_PATH_TREE_CAPACITY} árvores usadas mais recentemente
+     * continuam a ser reparadas: uma árvore despejada fica congelada.
+     */
+    public synchronized DynamicShortestPathTree getShortestPathTree(String sourceId) {
+        return shortestPathTrees.computeIfAbsent(sourceId,
+                id -> DynamicShortestPathTree.attach(graph, id, weightFunction));
+    }
+
+    private void detachShortestPathTrees() {
+        for (DynamicShortestPathTree tree : shortestPathTrees.values()) {
+            graph.removeChangeListener(tree);
+        }
+        shortestPathTrees.clear();
+    }
+
+    // ========== CACHE DE RESULTADOS ==========
+
+    /**
+     * Estatísticas de uso do cache de resultados
+     */
+    public ResultCache.CacheStatistics getCacheStatistics() {
+        return cache.getStatistics();
     }
 
     private void clearCache() {
-        cachedResults.clear();
+        cache.clear(graph.getVersion());
+    }
+
+    /**
+     * Após danos, remove do cache apenas os resultados que dependem de uma
+     * Conexão piorada ou de um Oblast destruído. Se alguma aresta melhorou
+     * ou a estrutura mudou, limpa tudo.
+     */
+    private void invalidateDamagedResults(GraphSnapshot before, Collection<String> destroyedOblastIds) {
+        GraphSnapshot after = currentSnapshot();
+        if (after == before) return;
+
+        Set<Connection> damaged = findDamagedConnections(before, after);
+        if (damaged == null) {
+            clearCache();
+            return;
+        }
+
+        cache.invalidate(before.getVersion(), after.getVersion(), damaged, destroyedOblastIds);
+    }
+
+    /**
+     * Conexões que deixaram de ser utilizáveis ou ficaram mais pesadas;
+     * null se houve melhoria ou mudança estrutural
+     */
+    private static Set<Connection> findDamagedConnections(GraphSnapshot before, GraphSnapshot after) {
+        int n = after.getNodeCount();
+        if (n != before.getNodeCount() || after.getEdgeCount() != before.getEdgeCount()) {
+            return null;
+        }
+
+        Set<Connection> damaged = new HashSet<>();
+        for (int u = 0; u < n; u++) {
+            if (after.firstEdge(u) != before.firstEdge(u)) return null;
+
+            for (int e = after.firstEdge(u); e < after.endEdge(u); e++) {
+                if (after.getTarget(e) != before.getTarget(e)) return null;
+
+                boolean wasUsable = before.isUsable(e);
+                boolean isUsable = after.isUsable(e);
+                if ((!wasUsable && isUsable)
+                        || (isUsable && after.getWeight(e) < before.getWeight(e))) {
+                    return null;
+                }
+                if (wasUsable && (!isUsable || after.getWeight(e) > before.getWeight(e))) {
+                    damaged.add(before.getConnection(e));
+                }
+            }
+        }
+        return damaged;
+    }
+
+    /**
+     * Elementos do grafo de que um resultado depende: as arestas da rota
+     * (ou da árvore, no caso das MSTs) e os Oblasts do caminho
+     */
+    private static ResultCache.Dependencies dependenciesOf(AlgorithmType type, AlgorithmResult result,
+                                                           GraphSnapshot snapshot) {
+        // Danos não criam caminhos: "sem caminho" continua válido
+        if (!result.isSuccess() || result.getMainRoute() == null) {
+            return ResultCache.Dependencies.none();
+        }
+
+        // DFS depende da ordem de exploração de todas as arestas; as
+        // distâncias a todos os Oblasts (Dijkstra) dependem de arestas fora da rota
+        if (type == AlgorithmType.DFS || result.getMetadata("all_distances") != null) {
+            return ResultCache.Dependencies.onAnyChange();
+        }
+
+        Set<Connection> connections = new HashSet<>();
+        Set<String> oblastIds = new HashSet<>();
+
+        if (type == AlgorithmType.KRUSKAL || type == AlgorithmType.PRIM) {
+            // Remover ou piorar uma aresta fora da árvore não altera a MST
+            for (Object edge : (List<?>) result.getMetadata("mst_edges")) {
+                boolean found = edge instanceof Kruskal.Edge k
+                        ? addConnection(snapshot, k.getFrom(), k.getTo(), connections)
+                        : edge instanceof Prim.Edge p && addConnection(snapshot, p.getFrom(), p.getTo(), connections);
+                if (!found) {
+                    return ResultCache.Dependencies.onAnyChange();
+                }
+            }
+        } else {
+            List<Oblast> path = result.getMainRoute().getPath();
+            for (int i = 0; i < path.size(); i++) {
+                oblastIds.add(path.get(i).getId());
+                if (i + 1 < path.size()
+                        && !addConnection(snapshot, path.get(i).getId(), path.get(i + 1).getId(), connections)) {
+                    return ResultCache.Dependencies.onAnyChange();
+                }
+            }
+        }
+
+        return new ResultCache.Dependencies(connections, oblastIds, false);
+    }
+
+    /**
+     * Adiciona a Conexão utilizável mais leve de from para to; false se não existir
+     */
+    private static boolean addConnection(GraphSnapshot snapshot, String fromId, String toId,
+                                         Set<Connection> connections) {
+        int u = snapshot.indexOf(fromId);
+        int v = snapshot.indexOf(toId);
+        if (u < 0 || v < 0) return false;
+
+        int best = -1;
+        for (int e = snapshot.firstEdge(u); e < snapshot.endEdge(u); e++) {
+            if (snapshot.getTarget(e) == v && snapshot.isUsable(e)
+                    && (best == -1 || snapshot.getWeight(e) < snapshot.getWeight(best))) {
+                best = e;
+            }
+        }
+        if (best == -1) return false;
+
+        connections.add(snapshot.getConnection(best));
+        return true;
     }
 
     // ========== CLASSE AUXILIAR ==========
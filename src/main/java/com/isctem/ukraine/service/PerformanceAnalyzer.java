@@ -1,5 +1,6 @@
 package com.isctem.ukraine.service;
 
+import com.isctem.ukraine.data.UkraineData;
 import com.isctem.ukraine.model.*;
 import java.util.*;
 
@@ -115,25 +116,21 @@ public class PerformanceAnalyzer {
                                                             double[] destructionLevels) {
         Map<Double, Map<AlgorithmType, AlgorithmResult>> results = new HashMap<>();
 
-        Graph originalGraph = graphService.getGraph().clone();
+        // Cada nível é um cenário derivado da mesma fotografia: o grafo real não muda
+        GraphSnapshot original = graphService.getGraph().getSnapshot();
 
         for (double level : destructionLevels) {
             System.out.printf("Testando destruição: %.0f%%...\n", level);
 
-            // Resetar e aplicar destruição
-            graphService.setGraph(originalGraph.clone());
-            graphService.simulateRussianAttack(level);
+            GraphSnapshot scenario = UkraineData.simulateWarDamage(original, level);
 
             // Testar todos algoritmos
             Map<AlgorithmType, AlgorithmResult> levelResults =
-                    graphService.executeAllAlgorithms(startId, endId);
+                    graphService.executeAllAlgorithms(scenario, startId, endId);
 
             results.put(level, levelResults);
         }
 
-        // Restaurar grafo original
-        graphService.setGraph(originalGraph);
-
         return new DestructionImpactReport(results);
     }
 
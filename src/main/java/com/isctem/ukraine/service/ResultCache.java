@@ -0,0 +1,247 @@
+package com.isctem.ukraine.service;
+
+import com.isctem.ukraine.model.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de resultados de algoritmos, seguro para várias threads.
+ *
+ * LRU com capacidade limitada. Todas as entradas são válidas para uma única
+ * versão do grafo ({@link Graph#getVersion()}); consultas noutra versão são
+ * sempre miss. Cada entrada regista as Conexões e Oblasts de que depende
+ * num índice inverso, para que danos removam apenas os resultados afetados
+ * (ver {@link #invalidate}).
+ */
+public class ResultCache {
+
+    /**
+     * Chave de cache: algoritmo + origem/destino
+     */
+    public record Key(AlgorithmType type, String startId, String endId) {}
+
+    /**
+     * Elementos do grafo de que um resultado depende.
+     * anyChange = true: invalidado por qualquer modificação (ex.: DFS).
+     */
+    public record Dependencies(Set<Connection> connections, Set<String> oblastIds, boolean anyChange) {
+        private static final Dependencies NONE = new Dependencies(Set.of(), Set.of(), false);
+        private static final Dependencies ANY_CHANGE = new Dependencies(Set.of(), Set.of(), true);
+
+        /** Resultado que nenhum dano pode invalidar (ex.: "sem caminho") */
+        public static Dependencies none() {
+            return NONE;
+        }
+
+        /** Resultado invalidado por qualquer modificação */
+        public static Dependencies onAnyChange() {
+            return ANY_CHANGE;
+        }
+    }
+
+    private record Entry(AlgorithmResult result, Dependencies dependencies) {}
+
+    private final int capacity;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    // Índice inverso: elemento do grafo -> chaves que dependem dele
+    private final Map<Connection, Set<Key>> byConnection = new HashMap<>();
+    private final Map<String, Set<Key>> byOblast = new HashMap<>();
+    private final Set<Key> byAnyChange = new HashSet<>();
+
+    // Versão do grafo para a qual todas as entradas são válidas
+    private long version;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ResultCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacidade deve ser positiva: " + capacity);
+        }
+        this.capacity = capacity;
+        // accessOrder = true: a iteração vai do menos para o mais recentemente usado
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ResultCache.this.capacity) {
+                    unindex(eldest.getKey(), eldest.getValue().dependencies());
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // ========== OPERAÇÕES ==========
+
+    /**
+     * Retorna o resultado em cache para a versão indicada ou null (miss)
+     */
+    public AlgorithmResult get(Key key, long graphVersion) {
+        Entry entry;
+        synchronized (entries) {
+            entry = graphVersion == version ? entries.get(key) : null;
+        }
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry.result();
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Guarda um resultado calculado na versão indicada. Resultados de versões
+     * antigas são descartados; uma versão mais nova (grafo modificado fora
+     * do serviço) esvazia o cache e passa a ser a versão corrente.
+     */
+    public void put(Key key, long graphVersion, AlgorithmResult result, Dependencies dependencies) {
+        synchronized (entries) {
+            if (graphVersion < version) return;
+            if (graphVersion > version) {
+                clearEntries();
+                version = graphVersion;
+            }
+
+            Entry previous = entries.remove(key);
+            if (previous != null) {
+                unindex(key, previous.dependencies());
+            }
+            entries.put(key, new Entry(result, dependencies));
+            index(key, dependencies);
+        }
+    }
+
+    /**
+     * Passa o cache de fromVersion para toVersion removendo apenas as
+     * entradas que dependem das Conexões/Oblasts danificados. Se o cache não
+     * estava em fromVersion, não é possível saber o que mudou: esvazia tudo.
+     */
+    public void invalidate(long fromVersion, long toVersion,
+                           Collection<Connection> damagedConnections,
+                           Collection<String> damagedOblastIds) {
+        synchronized (entries) {
+            if (version != fromVersion) {
+                clearEntries();
+                version = toVersion;
+                return;
+            }
+
+            Set<Key> affected = new HashSet<>(byAnyChange);
+            for (Connection connection : damagedConnections) {
+                affected.addAll(byConnection.getOrDefault(connection, Set.of()));
+            }
+            for (String oblastId : damagedOblastIds) {
+                affected.addAll(byOblast.getOrDefault(oblastId, Set.of()));
+            }
+
+            for (Key key : affected) {
+                Entry entry = entries.remove(key);
+                if (entry != null) {
+                    unindex(key, entry.dependencies());
+                }
+            }
+            invalidations.addAndGet(affected.size());
+            version = toVersion;
+        }
+    }
+
+    /**
+     * Esvazia o cache e passa para a versão indicada
+     */
+    public void clear(long graphVersion) {
+        synchronized (entries) {
+            clearEntries();
+            version = graphVersion;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Contadores de uso desde a criação do cache
+     */
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits.get(), misses.get(), evictions.get(),
+                invalidations.get(), size(), capacity);
+    }
+
+    // ========== ÍNDICE INVERSO ==========
+
+    private void clearEntries() {
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+        byConnection.clear();
+        byOblast.clear();
+        byAnyChange.clear();
+    }
+
+    private void index(Key key, Dependencies dependencies) {
+        if (dependencies.anyChange()) {
+            byAnyChange.add(key);
+        }
+        for (Connection connection : dependencies.connections()) {
+            byConnection.computeIfAbsent(connection, c -> new HashSet<>()).add(key);
+        }
+        for (String oblastId : dependencies.oblastIds()) {
+            byOblast.computeIfAbsent(oblastId, id -> new HashSet<>()).add(key);
+        }
+    }
+
+    private void unindex(Key key, Dependencies dependencies) {
+        if (dependencies.anyChange()) {
+            byAnyChange.remove(key);
+        }
+        for (Connection connection : dependencies.connections()) {
+            removeFromIndex(byConnection, connection, key);
+        }
+        for (String oblastId : dependencies.oblastIds()) {
+            removeFromIndex(byOblast, oblastId, key);
+        }
+    }
+
+    private static <T> void removeFromIndex(Map<T, Set<Key>> index, T element, Key key) {
+        Set<Key> keys = index.get(element);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                index.remove(element);
+            }
+        }
+    }
+
+    // ========== CLASSE AUXILIAR ==========
+
+    public record CacheStatistics(
+            long hits,
+            long misses,
+            long evictions,
+            long invalidations,
+            int size,
+            int capacity
+    ) {
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total * 100;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Cache: %d/%d entradas | hits=%d misses=%d (%.1f%%) | evicções=%d | invalidações=%d",
+                    size, capacity, hits, misses, getHitRate(), evictions, invalidations);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.isctem.ukraine.service;
 
+import com.isctem.ukraine.algorithm.DynamicShortestPathTree;
+import com.isctem.ukraine.algorithm.ParetoRouteSearch;
+import com.isctem.ukraine.algorithm.StopDistanceMatrix;
+import com.isctem.ukraine.algorithm.TourOptimizer;
 import com.isctem.ukraine.model.*;
 import java.util.*;
 
@@ -19,25 +23,47 @@ public class RouteCalculator {
      */
     public ComparisonResult compareAlgorithms(String startId, String endId) {
         Map<AlgorithmType, AlgorithmResult> results =
-                graphService.executeAllAlgorithms(startId, endId);
+                graphService.executeAllAlgorithmsConcurrently(startId, endId);
 
         return new ComparisonResult(results);
     }
 
     /**
-     * Encontra as N melhores rotas alternativas
+     * Encontra as N melhores rotas alternativas (caminhos simples distintos)
      */
     public List<Route> findTopNRoutes(String startId, String endId, int n) {
-        Map<AlgorithmType, AlgorithmResult> results =
-                graphService.executeAllAlgorithms(startId, endId);
-
-        return results.values().stream()
-                .filter(AlgorithmResult::isSuccess)
-                .map(AlgorithmResult::getMainRoute)
-                .filter(Objects::nonNull)
-                .sorted(Comparator.comparingDouble(Route::getTotalDistance))
-                .limit(n)
-                .toList();
+        AlgorithmResult result = graphService.findKShortestPaths(startId, endId, n);
+        if (!result.isSuccess()) {
+            return List.of();
+        }
+        return result.getAllRoutesSorted();
+    }
+
+    /**
+     * Rota de comboio com reserva: duas rotas sem troços em comum, para que
+     * um único ataque não corte ambas (nodeDisjoint = true: nem Oblasts
+     * intermédios). A principal é a rota principal do resultado e a reserva
+     * a primeira alternativa.
+     */
+    public AlgorithmResult calculateConvoyRoutes(String startId, String endId, boolean nodeDisjoint) {
+        return graphService.findDisjointRoutes(startId, endId, nodeDisjoint);
+    }
+
+    /**
+     * Compromissos entre distância e exposição numa só consulta: todas as
+     * rotas não dominadas em (distância, Oblasts da frente, abastecimento
+     * mínimo), em vez de várias consultas com pesos diferentes
+     */
+    public List<ParetoRouteSearch.ParetoRoute> findParetoRoutes(String startId, String endId) {
+        AlgorithmResult result = graphService.findParetoRoutes(startId, endId);
+        if (!result.isSuccess()) {
+            return List.of();
+        }
+        List<ParetoRouteSearch.ParetoRoute> front = new ArrayList<>();
+        for (Object route : (List<?>) result.getMetadata("pareto_front")) {
+            front.add((ParetoRouteSearch.ParetoRoute) route);
+        }
+        return front;
     }
 
     /**
@@ -50,57 +76,35 @@ public class RouteCalculator {
         }
 
         // Encontrar oblast seguro mais próximo
-        List<Oblast> safeOblasts = graphService.getSafeOblasts();
-
-        Route bestRoute = null;
-        double shortestDist = Double.POSITIVE_INFINITY;
-
-        for (Oblast safe : safeOblasts) {
-            AlgorithmResult result = graphService.executeAlgorithm(
-                    AlgorithmType.DIJKSTRA, frontlineId, safe.getId());
-
-            if (result.isSuccess() && result.getMainRoute() != null) {
-                double dist = result.getMainRoute().getTotalDistance();
-                if (dist < shortestDist) {
-                    shortestDist = dist;
-                    bestRoute = result.getMainRoute();
-                }
-            }
+        List<String> safeIds = new ArrayList<>();
+        for (Oblast safe : graphService.getSafeOblasts()) {
+            safeIds.add(safe.getId());
         }
 
-        return bestRoute;
+        // Uma árvore por Oblast da frente, mantida entre destruições;
+        // escolha, distância e caminho lidos num único estado da árvore
+        DynamicShortestPathTree tree = graphService.getShortestPathTree(frontlineId);
+        return tree.getRouteToNearest(safeIds);
     }
 
     /**
-     * Calcula tour visitando múltiplos pontos (TSP simplificado)
+     * Calcula tour visitando múltiplos pontos a partir do primeiro: a ordem
+     * das restantes paragens é otimizada (inserção + 2-opt/Or-opt)
      */
     public Route calculateTour(List<String> oblastIds) {
         if (oblastIds.size() < 2) return null;
 
-        List<Oblast> path = new ArrayList<>();
-        path.add(graphService.getGraph().getOblast(oblastIds.get(0)));
-
-        double totalDistance = 0;
-
-        for (int i = 0; i < oblastIds.size() - 1; i++) {
-            String from = oblastIds.get(i);
-            String to = oblastIds.get(i + 1);
-
-            AlgorithmResult segment = graphService.executeAlgorithm(
-                    AlgorithmType.DIJKSTRA, from, to);
-
-            if (segment.isSuccess()) {
-                Route segmentRoute = segment.getMainRoute();
-                // Adicionar caminho sem duplicar o primeiro nó
-                path.addAll(segmentRoute.getPath().subList(1, segmentRoute.getPath().size()));
-                totalDistance += segmentRoute.getTotalDistance();
-            }
-        }
+        StopDistanceMatrix stops = graphService.getStopDistances(oblastIds.get(0),
+                oblastIds.subList(1, oblastIds.size()));
+        AlgorithmResult tour = TourOptimizer.execute(stops, GraphService.TOUR_OPTIMIZATION_BUDGET);
+        if (!tour.isSuccess()) return null;
 
         return new Route.Builder()
-                .setPath(path)
-                .setTotalDistance(totalDistance)
+                .setPath(tour.getMainRoute().getPath())
+                .setTotalDistance(tour.getMainRoute().getTotalDistance())
+                .setTotalCost(tour.getMainRoute().getTotalCost())
                 .setAlgorithm("Multi-Point Tour")
+                .setComputationTime(tour.getExecutionTimeMs())
                 .build();
     }
 
@@ -236,7 +240,7 @@ public class RouteCalculator {
         public AlgorithmResult getShortest() {
             return results.values().stream()
                     .filter(r -> r.isSuccess() && r.getMainRoute() != null)
-                    .min(Comparator.comparingDouble(r -> r.getMainRoute().getTotalDistance()))
+                    .min(Comparator.comparingDouble(r -> r.getMainRoute().getTotalCost()))
                     .orElse(null);
         }
 
@@ -222,6 +222,10 @@ public class MainViewController {
                 graphPane.displayRoute(result.getMainRoute());
                 logPanel.addLog("📏 Distância: " +
                         String.format("%.1f km", result.getMainRoute().getTotalDistance()));
+                if (result.getMainRoute().hasDistinctCost()) {
+                    logPanel.addLog("⚖️ Custo: " +
+                            String.format("%.1f", result.getMainRoute().getTotalCost()));
+                }
             }
         } else {
             logPanel.addLog("❌ Erro: " + result.getErrorMessage());
@@ -38,6 +38,9 @@ public class ReportGenerator {
             report.append("🎯 Origem: ").append(route.getStart().getName()).append("\n");
             report.append("🏁 Destino: ").append(route.getEnd().getName()).append("\n");
             report.append("📏 Distância Total: ").append(String.format("%.2f km", route.getTotalDistance())).append("\n");
+            if (route.hasDistinctCost()) {
+                report.append("⚖️  Custo Otimizado: ").append(String.format("%.2f", route.getTotalCost())).append("\n");
+            }
             report.append("🔢 Número de Paradas: ").append(route.getStepCount()).append("\n");
             report.append("🧠 Algoritmo Usado: ").append(route.getAlgorithmUsed()).append("\n");
             report.append("⏱️  Tempo de Computação: ").append(route.getComputationTimeMs()).append(" ms\n");
@@ -178,6 +181,10 @@ public class ReportGenerator {
                     .append(route.getEnd().getName()).append("</div></div>\n");
             html.append("<div class='metric'><div class='metric-label'>Distância</div><div class='metric-value'>")
                     .append(String.format("%.1f km", route.getTotalDistance())).append("</div></div>\n");
+            if (route.hasDistinctCost()) {
+                html.append("<div class='metric'><div class='metric-label'>Custo</div><div class='metric-value'>")
+                        .append(String.format("%.1f", route.getTotalCost())).append("</div></div>\n");
+            }
             html.append("<div class='metric'><div class='metric-label'>Paradas</div><div class='metric-value'>")
                     .append(route.getStepCount()).append("</div></div>\n");
             html.append("</div>\n");